@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.benchmark;
+
+import lombok.val;
+import org.overture.ego.model.entity.Application;
+import org.overture.ego.model.entity.Group;
+import org.overture.ego.model.entity.Policy;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.model.enums.PolicyMask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory entity fixtures in the style of the test EntityGenerator,
+ * without any database behind them.
+ */
+public class Fixtures {
+
+  private static final PolicyMask[] MASKS = PolicyMask.values();
+
+  public static List<Policy> createPolicies(int count, UUID owner) {
+    val policies = new ArrayList<Policy>(count);
+    for (int i = 0; i < count; i++) {
+      policies.add(Policy.builder()
+          .id(UUID.randomUUID())
+          .name(String.format("Study%04d", i))
+          .owner(owner)
+          .build());
+    }
+    return policies;
+  }
+
+  public static Group createGroup(String name) {
+    val group = new Group(name);
+    group.setId(UUID.randomUUID());
+    group.setDescription(name);
+    group.setStatus("Approved");
+    return group;
+  }
+
+  public static Application createApplication(String clientId) {
+    val app = new Application(String.format("Application %s", clientId), clientId,
+        new StringBuilder(clientId).reverse().toString());
+    app.setId(UUID.randomUUID());
+    app.setStatus("Approved");
+    return app;
+  }
+
+  /**
+   * A user with {@code fanOut} groups, applications and policies. The user holds a permission on
+   * every policy and each group holds a permission on one policy, with masks rotating so that
+   * DENY/WRITE/READ precedence is exercised.
+   */
+  public static User createUser(int fanOut) {
+    val user = User.builder()
+        .id(UUID.randomUUID())
+        .email("Benchmark.User@domain.com")
+        .name("Benchmark.User@domain.com")
+        .firstName("Benchmark")
+        .lastName("User")
+        .status("Approved")
+        .preferredLanguage("English")
+        .createdAt("2018-01-01 01:00:00")
+        .role("USER")
+        .build();
+
+    val owner = createGroup("Owners");
+    val policies = createPolicies(fanOut, owner.getId());
+    for (int i = 0; i < fanOut; i++) {
+      val group = createGroup(String.format("Group %04d", i));
+      group.addNewPermission(policies.get(i), MASKS[(i + 1) % MASKS.length]);
+      user.addNewGroup(group);
+      user.addNewApplication(createApplication(String.format("%06d", i)));
+      user.addNewPermission(policies.get(i), MASKS[i % MASKS.length]);
+    }
+    return user;
+  }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.benchmark;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.service.EffectivePermissionService;
+import org.overture.ego.token.TokenService;
+import org.overture.ego.token.VerifiedTokenCache;
+import org.overture.ego.token.signer.DefaultTokenSigner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wires a TokenService by hand, the way Spring would, but without a database:
+ * effective permissions are served from an in-memory map.
+ */
+public class TokenServices {
+
+  private static final int DURATION = 86400000;
+  private static final int KEY_SIZE = 2048;
+
+  @SneakyThrows
+  public static TokenService create(boolean verifiedTokenCacheEnabled, Map<UUID, List<String>> permissions) {
+    val keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(KEY_SIZE);
+    val keyPair = keyPairGenerator.generateKeyPair();
+
+    val tokenSigner = new DefaultTokenSigner();
+    ReflectionTestUtils.setField(tokenSigner, "encodedPrivKey",
+        Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+    ReflectionTestUtils.setField(tokenSigner, "encodedPubKey",
+        Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+    ReflectionTestUtils.invokeMethod(tokenSigner, "init");
+
+    val verifiedTokenCache = new VerifiedTokenCache();
+    ReflectionTestUtils.setField(verifiedTokenCache, "enabled", verifiedTokenCacheEnabled);
+    ReflectionTestUtils.setField(verifiedTokenCache, "maxSize", 10000);
+
+    val tokenService = new TokenService();
+    ReflectionTestUtils.setField(tokenService, "DURATION", DURATION);
+    ReflectionTestUtils.setField(tokenService, "tokenSigner", tokenSigner);
+    ReflectionTestUtils.setField(tokenService, "verifiedTokenCache", verifiedTokenCache);
+    ReflectionTestUtils.setField(tokenService, "effectivePermissionService",
+        new InMemoryEffectivePermissionService(permissions));
+    return tokenService;
+  }
+
+  public static Map<UUID, List<String>> precompute(User... users) {
+    val permissions = new ConcurrentHashMap<UUID, List<String>>();
+    for (val user : users) {
+      permissions.put(user.getId(), user.getPermissions());
+    }
+    return permissions;
+  }
+
+  private static class InMemoryEffectivePermissionService extends EffectivePermissionService {
+
+    private final Map<UUID, List<String>> permissions;
+
+    InMemoryEffectivePermissionService(Map<UUID, List<String>> permissions) {
+      this.permissions = permissions;
+    }
+
+    @Override
+    public List<String> getPermissions(UUID userId) {
+      return permissions.get(userId);
+    }
+  }
+
+}
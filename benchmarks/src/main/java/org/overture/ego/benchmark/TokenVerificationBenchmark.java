@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.benchmark;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.token.TokenService;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenVerificationBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  public int fanOut;
+
+  // Whether verified claims are served from the VerifiedTokenCache or re-verified on every call
+  @Param({"false", "true"})
+  public boolean cached;
+
+  private TokenService tokenService;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    User user = Fixtures.createUser(fanOut);
+    tokenService = TokenServices.create(cached, TokenServices.precompute(user));
+    token = tokenService.generateUserToken(user);
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return tokenService.validateToken(token);
+  }
+
+  @Benchmark
+  public Claims getTokenClaims() {
+    return tokenService.getTokenClaims(token);
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.benchmark;
+
+import io.jsonwebtoken.Claims;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.overture.ego.token.TokenService;
+import org.overture.ego.token.user.UserTokenClaims;
+import org.overture.ego.token.user.UserTokenContext;
+import org.overture.ego.utils.TypeUtils;
+import org.overture.ego.view.Views;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeUtilsBenchmark {
+
+  @Param({"1", "10", "100", "1000"})
+  public int fanOut;
+
+  private UserTokenClaims tokenClaims;
+  private Claims claims;
+
+  @Setup
+  public void setUp() {
+    val user = Fixtures.createUser(fanOut);
+    val tokenService = TokenServices.create(false, TokenServices.precompute(user));
+    user.setEffectivePermissions(user.getPermissions());
+
+    tokenClaims = new UserTokenClaims();
+    tokenClaims.setIss("ego");
+    tokenClaims.setValidDuration(86400000);
+    tokenClaims.setContext(new UserTokenContext(user));
+    claims = tokenService.getTokenClaims(tokenService.generateUserToken(user));
+  }
+
+  // Token build path: claims POJO graph to the map handed to the JWT builder
+  @Benchmark
+  public Map claimsToMap() {
+    return TypeUtils.convertToAnotherType(tokenClaims, Map.class, Views.JWTAccessToken.class);
+  }
+
+  // Token read path: verified claims back to the claims POJO graph
+  @Benchmark
+  public UserTokenClaims mapToClaims() {
+    return TypeUtils.convertToAnotherType(claims, UserTokenClaims.class, Views.JWTAccessToken.class);
+  }
+
+}
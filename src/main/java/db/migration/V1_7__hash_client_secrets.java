@@ -0,0 +1,39 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.flywaydb.core.api.migration.spring.SpringJdbcMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Client secrets used to be stored in clear and hashed on every client lookup, they are now
+ * stored as BCrypt hashes. Secrets that already are hashes are left as they are.
+ */
+@Slf4j
+public class V1_7__hash_client_secrets implements SpringJdbcMigration {
+
+  private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2(a|y|b)?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+  public void migrate(JdbcTemplate jdbcTemplate) throws Exception {
+    log.info("Flyway java migration: V1_7__hash_client_secrets running ******************************");
+
+    val encoder = new BCryptPasswordEncoder();
+    val updates = new ArrayList<Object[]>();
+    jdbcTemplate.query("SELECT id, clientsecret FROM egoapplication WHERE clientsecret IS NOT NULL", rs -> {
+      val secret = rs.getString(2);
+      if (!BCRYPT_PATTERN.matcher(secret).matches()) {
+        updates.add(new Object[]{encoder.encode(secret), (UUID) rs.getObject(1)});
+      }
+    });
+    jdbcTemplate.batchUpdate("UPDATE egoapplication SET clientsecret = ? WHERE id = ?", updates);
+
+    log.info("****************************** Flyway java migration: V1_7__hash_client_secrets complete, {} secrets hashed",
+        updates.size());
+  }
+
+}
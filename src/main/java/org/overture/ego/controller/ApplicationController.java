@@ -27,6 +27,7 @@ import org.overture.ego.model.entity.Application;
 import org.overture.ego.model.entity.Group;
 import org.overture.ego.model.entity.User;
 import org.overture.ego.model.exceptions.PostWithIdentifierException;
+import org.overture.ego.model.search.FilterOperator;
 import org.overture.ego.model.search.Filters;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.security.AdminScoped;
@@ -70,10 +71,16 @@ public class ApplicationController {
                   value = "Field to sort on"),
           @ApiImplicitParam(name = "sortOrder", dataType = "string", paramType = "query",
                   value = "Sorting order: ASC|DESC. Default order: DESC"),
+          @ApiImplicitParam(name = "after", dataType = "string", paramType = "query",
+                  value = "Keyset pagination: empty for the first page, then the 'next' cursor of the previous page. " +
+                          "Replaces offset, results are not counted unless a count mode is given"),
+          @ApiImplicitParam(name = "count", dataType = "string", paramType = "query",
+                  value = "Counting of results: exact|estimate|none. Default: exact, none for keyset pages"),
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -169,7 +176,8 @@ public class ApplicationController {
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -210,7 +218,8 @@ public class ApplicationController {
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -20,6 +20,7 @@ import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.overture.ego.provider.ProviderExecutors;
 import org.overture.ego.provider.facebook.FacebookTokenService;
 import org.overture.ego.provider.google.GoogleTokenService;
 import org.overture.ego.provider.orcid.ORCIDTokenService;
@@ -28,67 +29,84 @@ import org.overture.ego.token.TokenService;
 import org.overture.ego.token.signer.TokenSigner;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @RestController
 @RequestMapping("/oauth")
 @AllArgsConstructor(onConstructor = @__({@Autowired}))
 public class AuthController {
+    private static final long JWKS_MAX_AGE = 300;
+
     private TokenService tokenService;
     private GoogleTokenService googleTokenService;
     private FacebookTokenService facebookTokenService;
     private ORCIDTokenService orcidTokenService;
     private TokenSigner tokenSigner;
+    private ProviderExecutors providerExecutors;
 
+    /*
+      Identity provider calls run on the provider's own bounded pool rather than on the request
+      thread, which is released while they are pending. Issuing the token (a database lookup and
+      signing) runs on the common pool, so it does not hold a provider thread.
+     */
     @RequestMapping(method = RequestMethod.GET, value = "/google/token")
-    @ResponseStatus(value = HttpStatus.OK)
-    @SneakyThrows
-    public @ResponseBody
-    String exchangeGoogleTokenForAuth(
+    public DeferredResult<ResponseEntity<String>> exchangeGoogleTokenForAuth(
             @RequestHeader(value = "token") final String idToken) {
-        if (!googleTokenService.validToken(idToken))
-            throw new InvalidTokenException("Invalid user token:" + idToken);
-        val authInfo = googleTokenService.decode(idToken);
-        return tokenService.generateUserToken(authInfo);
+        val call = googleTokenService.validTokenAsync(idToken);
+        return defer(call, call.thenApplyAsync(valid -> {
+            if (!valid)
+                throw new InvalidTokenException("Invalid user token:" + idToken);
+            val authInfo = googleTokenService.decode(idToken);
+            return new ResponseEntity<>(tokenService.generateUserToken(authInfo), HttpStatus.OK);
+        }));
     }
 
     @RequestMapping(method = RequestMethod.GET, value = "/facebook/token")
-    @ResponseStatus(value = HttpStatus.OK)
-    @SneakyThrows
-    public @ResponseBody
-    String exchangeFacebookTokenForAuth(
+    public DeferredResult<ResponseEntity<String>> exchangeFacebookTokenForAuth(
             @RequestHeader(value = "token") final String idToken) {
-        if (!facebookTokenService.validToken(idToken))
-            throw new InvalidTokenException("Invalid user token:" + idToken);
-        val authInfo = facebookTokenService.getAuthInfo(idToken);
-        if (authInfo.isPresent()) {
-            return tokenService.generateUserToken(authInfo.get());
-        } else {
-            throw new InvalidTokenException("Unable to generate auth token for this user");
-        }
+        // The user details are only requested once the token is known to be valid
+        val call = facebookTokenService.validTokenAsync(idToken);
+        return defer(call, call.thenCompose(valid -> {
+            if (!valid)
+                throw new InvalidTokenException("Invalid user token:" + idToken);
+            return facebookTokenService.getAuthInfoAsync(idToken);
+        }).thenApplyAsync(info -> {
+            if (info.isPresent()) {
+                return new ResponseEntity<>(tokenService.generateUserToken(info.get()), HttpStatus.OK);
+            } else {
+                throw new InvalidTokenException("Unable to generate auth token for this user");
+            }
+        }));
     }
 
     @RequestMapping(method = RequestMethod.GET, value = "/orcid/token")
-    @ResponseStatus(value = HttpStatus.OK)
-    @SneakyThrows
-    public @ResponseBody
-    ResponseEntity<String> exchangeORCIDTokenForAuth(
+    public DeferredResult<ResponseEntity<String>> exchangeORCIDTokenForAuth(
             @RequestHeader(value = "code") final String code) {
-        val result = orcidTokenService.getAuthInfo(code);
-        if (result.isValid()) {
-            return new ResponseEntity<>(tokenService.generateUserToken(result.getToken()), HttpStatus.OK);
-        } else {
-            return new ResponseEntity<>(result.getError(), new HttpHeaders(),
-                    HttpStatus.BAD_REQUEST);
-        }
+        val call = orcidTokenService.getAuthInfoAsync(code);
+        return defer(call, call.thenApplyAsync(result -> {
+            if (result.isValid()) {
+                return new ResponseEntity<>(tokenService.generateUserToken(result.getToken()), HttpStatus.OK);
+            } else {
+                return new ResponseEntity<>(result.getError(), new HttpHeaders(),
+                        HttpStatus.BAD_REQUEST);
+            }
+        }));
     }
 
     @RequestMapping(method = RequestMethod.GET, value = "/token/verify")
@@ -107,6 +125,15 @@ public class AuthController {
         return true;
     }
 
+    @RequestMapping(method = RequestMethod.POST, value = "/token/verify/batch")
+    public ResponseEntity<?> verifyJWTokens(@RequestBody final List<String> tokens) {
+        if (tokens.size() > tokenService.getMaxBatchSize()) {
+            return new ResponseEntity<>("At most " + tokenService.getMaxBatchSize() + " tokens can be verified at once.",
+                    new HttpHeaders(), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(tokenService.verifyTokens(tokens), HttpStatus.OK);
+    }
+
     @RequestMapping(method = RequestMethod.GET, value = "/token/public_key")
     @ResponseStatus(value = HttpStatus.OK)
     public @ResponseBody
@@ -115,6 +142,33 @@ public class AuthController {
         return pubKey.orElse("");
     }
 
+    /*
+      Public keys tokens may be signed with, by kid, for services verifying tokens themselves.
+      Clients revalidate with If-None-Match and only download it again after a key change.
+     */
+    @RequestMapping(method = RequestMethod.GET, value = "/token/jwks")
+    public ResponseEntity<String> getJwks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        val etag = tokenSigner.getJwksTag();
+        val cacheControl = CacheControl.maxAge(JWKS_MAX_AGE, TimeUnit.SECONDS).mustRevalidate();
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .body(tokenSigner.getJwks());
+    }
+
+    @ExceptionHandler({RejectedExecutionException.class})
+    public ResponseEntity<Object> handleRejectedExecutionException(HttpServletRequest req,
+                                                                   RejectedExecutionException ex) {
+        log.warn("Identity provider calls rejected, pool is full.");
+        return new ResponseEntity<>("Identity provider is busy, try again later.", new HttpHeaders(),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler({InvalidTokenException.class})
     public ResponseEntity<Object> handleInvalidTokenException(HttpServletRequest req, InvalidTokenException ex) {
         log.error("ID Token not found.");
@@ -122,4 +176,32 @@ public class AuthController {
                 HttpStatus.BAD_REQUEST);
     }
 
+    /*
+      Answers with the response once the future completes, or with a 504 after the timeout. The
+      provider call is then cancelled, which also skips the steps chained after it.
+     */
+    private <T> DeferredResult<ResponseEntity<T>> defer(CompletableFuture<?> call,
+                                                        CompletableFuture<ResponseEntity<T>> future) {
+        val result = new DeferredResult<ResponseEntity<T>>(providerExecutors.getTimeout());
+        result.onTimeout(() -> {
+            if (!result.isSetOrExpired()) {
+                result.setResult(new ResponseEntity<>(HttpStatus.GATEWAY_TIMEOUT));
+            }
+            future.cancel(true);
+            call.cancel(true);
+        });
+        future.whenComplete((value, ex) -> {
+            if (result.isSetOrExpired()) {
+                return;
+            }
+            if (ex == null) {
+                result.setResult(value);
+            } else {
+                // Handled by the exception handlers of this controller
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return result;
+    }
+
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.controller;
+
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.overture.ego.model.exceptions.UnknownExportException;
+import org.overture.ego.security.AdminScoped;
+import org.overture.ego.service.ExportService;
+import org.overture.ego.utils.NdjsonWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/export")
+@AllArgsConstructor(onConstructor = @__({@Autowired}))
+public class ExportController {
+  /**
+   * Dependencies
+   */
+  private final ExportService exportService;
+
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.GET, value = "/{entity}", produces = NdjsonWriter.MEDIA_TYPE)
+  @ApiResponses(
+          value = {
+            @ApiResponse(code = 200, message = "Every row of users, groups, applications or permissions, " +
+                    "one JSON document per line"),
+            @ApiResponse(code = 404, message = UnknownExportException.reason)
+          }
+  )
+  public void export(
+          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+          @PathVariable(value = "entity", required = true) String entity,
+          HttpServletResponse response) throws IOException {
+    val export = ExportService.Entity.parse(entity);
+    response.setContentType(NdjsonWriter.MEDIA_TYPE);
+    exportService.export(export, response.getOutputStream());
+  }
+
+}
@@ -30,6 +30,7 @@ import org.overture.ego.model.entity.Group;
 import org.overture.ego.model.entity.User;
 import org.overture.ego.model.exceptions.PostWithIdentifierException;
 import org.overture.ego.model.params.Scope;
+import org.overture.ego.model.search.FilterOperator;
 import org.overture.ego.model.search.Filters;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.security.AdminScoped;
@@ -73,10 +74,16 @@ public class GroupController {
                   value = "Field to sort on"),
           @ApiImplicitParam(name = "sortOrder", dataType = "string", paramType = "query",
                   value = "Sorting order: ASC|DESC. Default order: DESC"),
+          @ApiImplicitParam(name = "after", dataType = "string", paramType = "query",
+                  value = "Keyset pagination: empty for the first page, then the 'next' cursor of the previous page. " +
+                          "Replaces offset, results are not counted unless a count mode is given"),
+          @ApiImplicitParam(name = "count", dataType = "string", paramType = "query",
+                  value = "Counting of results: exact|estimate|none. Default: exact, none for keyset pages"),
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -233,7 +240,8 @@ public class GroupController {
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -305,7 +313,8 @@ public class GroupController {
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -329,6 +338,36 @@ public class GroupController {
     }
   }
 
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.POST, value = "/{id}/users")
+  @ApiResponses(
+          value = {
+                  @ApiResponse(code = 200, message = "Add Users to Group", response = Group.class)
+          }
+  )
+  public @ResponseBody
+  Group addUsersToGroup(
+          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+          @PathVariable(value = "id", required = true) String grpId,
+          @RequestBody(required = true) List<String> users) {
+    return groupService.addUsersToGroup(grpId, users);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.DELETE, value = "/{id}/users/{userIDs}")
+  @ApiResponses(
+          value = {
+                  @ApiResponse(code = 200, message = "Delete Users from Group")
+          }
+  )
+  @ResponseStatus(value = HttpStatus.OK)
+  public void deleteUsersFromGroup(
+          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+          @PathVariable(value = "id", required = true) String grpId,
+          @PathVariable(value = "userIDs", required = true) List<String> userIDs) {
+    groupService.deleteUsersFromGroup(grpId, userIDs);
+  }
+
   @ExceptionHandler({ EntityNotFoundException.class })
   public ResponseEntity<Object> handleEntityNotFoundException(HttpServletRequest req, EntityNotFoundException ex) {
     log.error("Group ID not found.");
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.controller;
+
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.overture.ego.model.dto.PermissionCheckResult;
+import org.overture.ego.model.exceptions.InvalidPermissionCheckException;
+import org.overture.ego.model.params.PermissionCheck;
+import org.overture.ego.model.params.PolicyReadQuery;
+import org.overture.ego.security.AdminScoped;
+import org.overture.ego.service.PermissionCheckService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/permissions")
+@AllArgsConstructor(onConstructor = @__({@Autowired}))
+public class PermissionController {
+  /**
+   * Dependencies
+   */
+  private final PermissionCheckService permissionCheckService;
+
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.POST, value = "/check")
+  @ApiResponses(
+          value = {
+            @ApiResponse(code = 200, message = "Result of each check, in order. DENY overrides any other " +
+                    "permission and WRITE includes READ", response = PermissionCheckResult.class,
+                    responseContainer = "List"),
+            @ApiResponse(code = 400, message = InvalidPermissionCheckException.reason)
+          }
+  )
+  public @ResponseBody
+  List<PermissionCheckResult> check(
+          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+          @RequestBody(required = true) List<PermissionCheck> checks) {
+    return permissionCheckService.check(checks);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.POST, value = "/readable")
+  @ApiResponses(
+          value = {
+            @ApiResponse(code = 200, message = "The policies of the query the user can read",
+                    response = String.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = InvalidPermissionCheckException.reason)
+          }
+  )
+  public @ResponseBody
+  List<String> readablePolicies(
+          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+          @RequestBody(required = true) PolicyReadQuery query) {
+    return permissionCheckService.readablePolicies(query);
+  }
+
+}
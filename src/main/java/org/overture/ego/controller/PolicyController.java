@@ -8,9 +8,12 @@ import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.overture.ego.model.dto.PageDTO;
+import org.overture.ego.model.dto.PermissionGrantResult;
 import org.overture.ego.model.entity.Policy;
 import org.overture.ego.model.exceptions.PostWithIdentifierException;
+import org.overture.ego.model.params.PermissionGrant;
 import org.overture.ego.model.params.Scope;
+import org.overture.ego.model.search.FilterOperator;
 import org.overture.ego.model.search.Filters;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.security.AdminScoped;
@@ -68,10 +71,16 @@ public class PolicyController {
       value = "Field to sort on"),
     @ApiImplicitParam(name = "sortOrder", dataType = "string", paramType = "query",
       value = "Sorting order: ASC|DESC. Default order: DESC"),
+    @ApiImplicitParam(name = "after", dataType = "string", paramType = "query",
+      value = "Keyset pagination: empty for the first page, then the 'next' cursor of the previous page. " +
+              "Replaces offset, results are not counted unless a count mode is given"),
+    @ApiImplicitParam(name = "count", dataType = "string", paramType = "query",
+      value = "Counting of results: exact|estimate|none. Default: exact, none for keyset pages"),
     @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
       value = "Filter by status. " +
         "You could also specify filters on any field of the entity being queried as " +
-        "query parameters in this format: name=something")
+        "query parameters in this format: name=something. " +
+        FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -172,4 +181,38 @@ public class PolicyController {
     return "1 user permission successfully added to ACL '" + id + "'";
   }
 
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.POST, value = "/{id}/permissions")
+  @ApiResponses(
+    value = {
+      @ApiResponse(code = 200, message = "Grant a mask on the policy to many users and groups",
+        response = PermissionGrantResult.class)
+    }
+  )
+  public @ResponseBody
+  PermissionGrantResult grantPermissions(
+    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+    @PathVariable(value = "id", required = true) String id,
+    @RequestBody(required = true) PermissionGrant grant
+  ) {
+    return policyService.grant(id, grant);
+  }
+
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.POST, value = "/{id}/permissions/revoke")
+  @ApiResponses(
+    value = {
+      @ApiResponse(code = 200, message = "Revoke a mask (or all masks) on the policy from many users and groups",
+        response = PermissionGrantResult.class)
+    }
+  )
+  public @ResponseBody
+  PermissionGrantResult revokePermissions(
+    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+    @PathVariable(value = "id", required = true) String id,
+    @RequestBody(required = true) PermissionGrant grant
+  ) {
+    return policyService.revoke(id, grant);
+  }
+
 }
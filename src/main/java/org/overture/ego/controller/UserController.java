@@ -20,19 +20,24 @@ import com.fasterxml.jackson.annotation.JsonView;
 import io.swagger.annotations.*;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.overture.ego.model.dto.PageDTO;
+import org.overture.ego.model.dto.UserImportResult;
 import org.overture.ego.model.entity.Application;
 import org.overture.ego.model.entity.Group;
 import org.overture.ego.model.entity.User;
 import org.overture.ego.model.entity.UserPermission;
 import org.overture.ego.model.exceptions.PostWithIdentifierException;
 import org.overture.ego.model.params.Scope;
+import org.overture.ego.model.search.FilterOperator;
 import org.overture.ego.model.search.Filters;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.security.AdminScoped;
 import org.overture.ego.service.ApplicationService;
 import org.overture.ego.service.GroupService;
+import org.overture.ego.service.UserImportService;
 import org.overture.ego.service.UserService;
+import org.overture.ego.utils.NdjsonWriter;
 import org.overture.ego.view.Views;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
@@ -45,6 +50,9 @@ import springfox.documentation.annotations.ApiIgnore;
 
 import javax.persistence.EntityNotFoundException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -59,6 +67,7 @@ public class UserController {
   private final UserService userService;
   private final GroupService groupService;
   private final ApplicationService applicationService;
+  private final UserImportService userImportService;
 
   @AdminScoped
   @RequestMapping(method = RequestMethod.GET, value = "")
@@ -68,13 +77,19 @@ public class UserController {
           @ApiImplicitParam(name = "offset", dataType = "string", paramType = "query",
             value = "Index of first result to retrieve"),
           @ApiImplicitParam(name = "sort", dataType = "string", paramType = "query",
-                  value = "Field to sort on"),
+                  value = "Field to sort on, or 'relevance' to rank the results of a query"),
           @ApiImplicitParam(name = "sortOrder", dataType = "string", paramType = "query",
                   value = "Sorting order: ASC|DESC. Default order: DESC"),
+          @ApiImplicitParam(name = "after", dataType = "string", paramType = "query",
+                  value = "Keyset pagination: empty for the first page, then the 'next' cursor of the previous page. " +
+                          "Replaces offset, results are not counted unless a count mode is given"),
+          @ApiImplicitParam(name = "count", dataType = "string", paramType = "query",
+                  value = "Counting of results: exact|estimate|none. Default: exact, none for keyset pages"),
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -116,6 +131,36 @@ public class UserController {
     return userService.create(userInfo);
   }
 
+  @AdminScoped
+  @RequestMapping(method = RequestMethod.POST, value = "/import",
+          consumes = { NdjsonWriter.MEDIA_TYPE, "text/csv" }, produces = NdjsonWriter.MEDIA_TYPE)
+  @ApiResponses(
+          value = {
+            @ApiResponse(code = 200, message = "Import result of each row, one JSON document per line",
+                    response = UserImportResult.class)
+          }
+  )
+  public void importUsers(
+          @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = true) final String accessToken,
+          @RequestHeader(value = HttpHeaders.CONTENT_TYPE) final String contentType,
+          HttpServletRequest request, HttpServletResponse response) throws IOException {
+    val format = contentType.toLowerCase().startsWith("text/csv")
+            ? UserImportService.Format.CSV : UserImportService.Format.NDJSON;
+    response.setContentType(NdjsonWriter.MEDIA_TYPE);
+    val writer = new NdjsonWriter(response.getOutputStream());
+    // results are sent after every batch, so clients can follow long imports
+    userImportService.importUsers(request.getReader(), format, results -> {
+      try {
+        for (val result : results) {
+          writer.write(result);
+        }
+        writer.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
   @AdminScoped
   @RequestMapping(method = RequestMethod.GET, value = "/{id}")
   @ApiResponses(
@@ -232,7 +277,8 @@ public class UserController {
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
@@ -304,7 +350,8 @@ public class UserController {
           @ApiImplicitParam(name = "status", dataType = "string", paramType = "query",
                   value = "Filter by status. " +
                           "You could also specify filters on any field of the entity being queried as " +
-                          "query parameters in this format: name=something")
+                          "query parameters in this format: name=something. " +
+                          FilterOperator.DESCRIPTION)
 
   })
   @ApiResponses(
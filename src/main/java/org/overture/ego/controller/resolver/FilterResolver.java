@@ -55,7 +55,7 @@ public class FilterResolver implements HandlerMethodArgumentResolver {
     nativeWebRequest.getParameterNames().forEachRemaining(p -> {
       val matchingField = fieldValues.stream().filter(f -> f.equalsIgnoreCase(p)).findFirst();
       if(matchingField.isPresent()){
-        filters.add(new SearchFilter(matchingField.get(),nativeWebRequest.getParameter(p)));
+        filters.add(SearchFilter.parse(matchingField.get(),nativeWebRequest.getParameter(p)));
       }
     });
     return filters;
@@ -16,6 +16,11 @@
 
 package org.overture.ego.controller.resolver;
 
+import lombok.val;
+import org.overture.ego.model.search.CountMode;
+import org.overture.ego.model.search.CountingPageable;
+import org.overture.ego.model.search.KeysetPageable;
+import org.overture.ego.model.search.PageCursor;
 import org.springframework.core.MethodParameter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -25,7 +30,18 @@ import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 public class PageableResolver implements HandlerMethodArgumentResolver {
+
+  private static final String RELEVANCE = "relevance";
+  private static final List<String> PAGING_PARAMETERS =
+      Arrays.asList("limit", "offset", "sort", "sortOrder", "after", "count");
+
   @Override
   public boolean supportsParameter(MethodParameter methodParameter) {
     return methodParameter.getParameterType().equals(Pageable.class);
@@ -41,16 +57,46 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
     String offset = nativeWebRequest.getParameter("offset");
     String sort = nativeWebRequest.getParameter("sort");
     String sortOrder = nativeWebRequest.getParameter("sortOrder");
-
-    return getPageable(limit, offset, sort, sortOrder);
+    // keyset pagination: "after" is empty for the first page, then the "next" cursor of the previous one
+    String after = nativeWebRequest.getParameter("after");
+    // exact|estimate|none, keyset pages are not counted by default
+    String count = nativeWebRequest.getParameter("count");
+    String queryKey = getQueryKey(nativeWebRequest);
+
+    if (after == null) {
+      return getPageable(limit, offset, sort, sortOrder, CountMode.parse(count, CountMode.EXACT), queryKey);
+    }
+    val pageable = getPageable(limit, null, sort, sortOrder, CountMode.parse(count, CountMode.NONE), queryKey);
+    val cursor = after.isEmpty() ? null : PageCursor.decode(after);
+    // the cursor keeps the sort of the page it was read from, relevance can't be seeked on
+    val order = cursor != null ? cursor.getOrder()
+        : pageable.getSort().isSorted() ? pageable.getSort().iterator().next() : Sort.Order.desc("id");
+    return new KeysetPageable(pageable.getPageSize(), order, cursor, pageable.getCountMode(), queryKey);
   }
 
   public Pageable getPageable() {
-    return getPageable(null, null, null, null);
+    return getPageable(CountMode.EXACT, null);
+  }
+
+  public CountingPageable getPageable(CountMode countMode, String queryKey) {
+    return getPageable(null, null, null, null, countMode, queryKey);
+  }
+
+  // the request path and its filters, which all pages of one listing have in common
+  private static String getQueryKey(NativeWebRequest nativeWebRequest) {
+    val request = nativeWebRequest.getNativeRequest(HttpServletRequest.class);
+    val parameters = new TreeMap<String, List<String>>();
+    for (Map.Entry<String, String[]> parameter : nativeWebRequest.getParameterMap().entrySet()) {
+      if (!PAGING_PARAMETERS.contains(parameter.getKey())) {
+        parameters.put(parameter.getKey(), Arrays.asList(parameter.getValue()));
+      }
+    }
+    return (request == null ? "" : request.getRequestURI()) + parameters;
   }
 
-  private Pageable getPageable(String limit, String offset, String sort, String sortOrder) {
-    return new Pageable() {
+  private CountingPageable getPageable(String limit, String offset, String sort, String sortOrder,
+                                       CountMode countMode, String queryKey) {
+    return new CountingPageable() {
       private final int DEFAULT_LIMIT = 20;
       private final int DEFAULT_PAGE_NUM = 0;
 
@@ -85,11 +131,25 @@ public class PageableResolver implements HandlerMethodArgumentResolver {
         if( (! StringUtils.isEmpty(sortOrder)) && "asc".equals(sortOrder.toLowerCase())){
           direction = Sort.Direction.ASC;
         }
+        // searches order their results by relevance themselves
+        if (RELEVANCE.equalsIgnoreCase(sort)) {
+          return Sort.unsorted();
+        }
         // TODO: this is a hack for now to provide default sort on id field
         // ideally we should not be making assumption about field name as "id" - it will break if field doesn't exist
         return new Sort(direction, StringUtils.isEmpty(sort) ? "id" : sort);
       }
 
+      @Override
+      public CountMode getCountMode() {
+        return countMode;
+      }
+
+      @Override
+      public String getQueryKey() {
+        return queryKey;
+      }
+
       @Override
       public Pageable next() {
         return null;
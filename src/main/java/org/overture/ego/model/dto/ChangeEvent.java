@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.overture.ego.model.enums.EntityType;
+
+import java.util.UUID;
+
+/**
+ * A committed change to an entity, or to every entity of a type when there is no id.
+ * The sequence numbers the changes announced by the same node (the origin), it is not a version
+ * of the entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"type", "id", "sequence", "origin"})
+public class ChangeEvent {
+  private EntityType type;
+  private UUID id;
+  private long sequence;
+  private String origin;
+}
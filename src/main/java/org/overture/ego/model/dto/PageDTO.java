@@ -17,9 +17,11 @@
 package org.overture.ego.model.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
 import lombok.Getter;
 import lombok.NonNull;
+import org.overture.ego.model.search.ResultPage;
 import org.overture.ego.view.Views;
 import org.springframework.data.domain.Page;
 
@@ -31,14 +33,28 @@ public class PageDTO<T> {
 
   private final int limit;
   private final int offset;
-  private final long count;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final Long count;
   private final List<T> resultSet;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final Boolean hasMore;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final String next;
 
   public PageDTO(@NonNull final Page<T> page) {
     this.limit      = page.getSize();
     this.offset     = page.getNumber();
-    this.count      = page.getTotalElements();
     this.resultSet  = page.getContent();
+    if (page instanceof ResultPage) {
+      // estimated or no count, keyset pages link to the next page
+      this.count    = ((ResultPage<T>) page).getCount();
+      this.hasMore  = page.hasNext();
+      this.next     = ((ResultPage<T>) page).getNext();
+    } else {
+      this.count    = page.getTotalElements();
+      this.hasMore  = null;
+      this.next     = null;
+    }
   }
 
 }
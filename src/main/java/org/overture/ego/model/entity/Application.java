@@ -21,10 +21,10 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonView;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
 import org.overture.ego.model.enums.Fields;
 import org.overture.ego.view.Views;
 
@@ -33,10 +33,17 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "application")
 @Table(name = "egoapplication")
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "application-summary"),
+    @NamedEntityGraph(name = "application-for-token", attributeNodes = {
+        @NamedAttributeNode("wholeGroups")})
+})
 @Data
 @ToString(exclude={"wholeGroups","wholeUsers"})
-@JsonPropertyOrder({"id", "name", "clientId", "clientSecret", "redirectUri", "description", "status"})
+@JsonPropertyOrder({"id", "name", "clientId", "clientSecret", "redirectUri", "description", "status", "groups"})
 @JsonInclude(JsonInclude.Include.CUSTOM)
 @EqualsAndHashCode(of={"id"})
 @NoArgsConstructor
@@ -80,7 +87,6 @@ public class Application {
 
   @ManyToMany()
   @Cascade(org.hibernate.annotations.CascadeType.SAVE_UPDATE)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinTable(name = "groupapplication", joinColumns = { @JoinColumn(name = Fields.APPID_JOIN) },
     inverseJoinColumns = { @JoinColumn(name = Fields.GROUPID_JOIN) })
   @JsonIgnore
@@ -88,7 +94,6 @@ public class Application {
 
   @ManyToMany()
   @Cascade(org.hibernate.annotations.CascadeType.SAVE_UPDATE)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinTable(name = "userapplication", joinColumns = {@JoinColumn(name = Fields.APPID_JOIN)},
     inverseJoinColumns = {@JoinColumn(name = Fields.USERID_JOIN)})
   @JsonIgnore
@@ -23,8 +23,6 @@ import com.fasterxml.jackson.annotation.JsonView;
 import lombok.*;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
 import org.overture.ego.model.enums.PolicyMask;
 import org.overture.ego.model.enums.Fields;
 import org.overture.ego.view.Views;
@@ -36,6 +34,11 @@ import java.util.*;
 @ToString(exclude={"wholeUsers","wholeApplications", "groupPermissions"})
 @Table(name = "egogroup")
 @Entity
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "group-summary"),
+    @NamedEntityGraph(name = "group-with-permissions", attributeNodes = {
+        @NamedAttributeNode("groupPermissions")})
+})
 @JsonPropertyOrder({"id", "name", "description", "status","wholeApplications", "groupPermissions"})
 @JsonInclude(JsonInclude.Include.ALWAYS)
 @EqualsAndHashCode(of={"id"})
@@ -64,7 +67,6 @@ public class Group implements PolicyOwner {
 
   @ManyToMany(targetEntity = Application.class)
   @Cascade(org.hibernate.annotations.CascadeType.SAVE_UPDATE)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinTable(name = "groupapplication", joinColumns = { @JoinColumn(name = Fields.GROUPID_JOIN) },
           inverseJoinColumns = { @JoinColumn(name = Fields.APPID_JOIN) })
   @JsonIgnore
@@ -72,20 +74,17 @@ public class Group implements PolicyOwner {
 
   @ManyToMany()
   @Cascade(org.hibernate.annotations.CascadeType.SAVE_UPDATE)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinTable(name = "usergroup", joinColumns = {@JoinColumn(name = Fields.GROUPID_JOIN)},
     inverseJoinColumns = {@JoinColumn(name = Fields.USERID_JOIN)})
   @JsonIgnore
   Set<User> wholeUsers;
 
-  @OneToMany(cascade=CascadeType.ALL, fetch=FetchType.EAGER)
-  @LazyCollection(LazyCollectionOption.FALSE)
+  @OneToMany(cascade=CascadeType.ALL)
   @JoinColumn(name=Fields.OWNER)
   @JsonIgnore
   protected Set<Policy> groupOwnedAclEntities;
 
-  @OneToMany(cascade=CascadeType.ALL, fetch=FetchType.EAGER)
-  @LazyCollection(LazyCollectionOption.FALSE)
+  @OneToMany(cascade=CascadeType.ALL)
   @JoinColumn(name=Fields.SID)
   @JsonIgnore
   protected List<GroupPermission> groupPermissions;
@@ -5,9 +5,9 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonView;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
 import org.overture.ego.model.enums.Fields;
 import org.overture.ego.view.Views;
 
@@ -16,8 +16,11 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policy")
 @Table(name = "aclentity")
 @Data
+@ToString(exclude={"groupPermissions","userPermissions"})
 @JsonPropertyOrder({"id","owner","name"})
 @JsonInclude(JsonInclude.Include.ALWAYS)
 @EqualsAndHashCode(of={"id"})
@@ -43,14 +46,12 @@ public class Policy {
   @Column(nullable = false, name = Fields.NAME, unique = true)
   String name;
 
-  @OneToMany(cascade=CascadeType.ALL, fetch=FetchType.EAGER)
-  @LazyCollection(LazyCollectionOption.FALSE)
+  @OneToMany(cascade=CascadeType.ALL)
   @JoinColumn(name=Fields.ENTITY)
   @JsonIgnore
   protected Set<GroupPermission> groupPermissions;
 
-  @OneToMany(cascade=CascadeType.ALL, fetch=FetchType.EAGER)
-  @LazyCollection(LazyCollectionOption.FALSE)
+  @OneToMany(cascade=CascadeType.ALL)
   @JoinColumn(name=Fields.ENTITY)
   @JsonIgnore
   protected Set<UserPermission> userPermissions;
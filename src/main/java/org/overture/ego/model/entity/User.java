@@ -23,8 +23,6 @@ import com.fasterxml.jackson.annotation.JsonView;
 import lombok.*;
 import org.hibernate.annotations.Cascade;
 import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
 import org.overture.ego.model.enums.PolicyMask;
 import org.overture.ego.model.enums.Fields;
 import org.overture.ego.view.Views;
@@ -38,10 +36,19 @@ import static org.overture.ego.utils.AclPermissionUtils.extractPermissionStrings
 
 @Entity
 @Table(name = "egouser")
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = "user-summary"),
+    @NamedEntityGraph(name = "user-for-token", attributeNodes = {
+        @NamedAttributeNode("wholeGroups"),
+        @NamedAttributeNode("wholeApplications")}),
+    @NamedEntityGraph(name = "user-with-permissions", attributeNodes = {
+        @NamedAttributeNode("userPermissions")})
+})
 @Data
-@ToString(exclude = {"wholeGroups", "wholeApplications", "userPermissions"})
+@ToString(exclude = {"wholeGroups", "wholeApplications", "userPermissions", "effectivePermissions"})
 @JsonPropertyOrder({"id", "name", "email", "role", "status", "wholeGroups",
-    "wholeApplications", "userPermissions", "firstName", "lastName", "createdAt", "lastLogin", "preferredLanguage"})
+    "wholeApplications", "userPermissions", "firstName", "lastName", "createdAt", "lastLogin", "preferredLanguage",
+    "roles", "groups", "permissions"})
 @JsonInclude(JsonInclude.Include.ALWAYS)
 @EqualsAndHashCode(of = {"id"})
 @Builder
@@ -98,7 +105,6 @@ public class User implements PolicyOwner {
 
   @ManyToMany(targetEntity = Group.class)
   @Cascade(org.hibernate.annotations.CascadeType.SAVE_UPDATE)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinTable(name = "usergroup", joinColumns = {@JoinColumn(name = Fields.USERID_JOIN)},
       inverseJoinColumns = {@JoinColumn(name = Fields.GROUPID_JOIN)})
   @JsonIgnore
@@ -106,18 +112,21 @@ public class User implements PolicyOwner {
 
   @ManyToMany(targetEntity = Application.class)
   @Cascade(org.hibernate.annotations.CascadeType.SAVE_UPDATE)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinTable(name = "userapplication", joinColumns = {@JoinColumn(name = Fields.USERID_JOIN)},
       inverseJoinColumns = {@JoinColumn(name = Fields.APPID_JOIN)})
   @JsonIgnore
   protected Set<Application> wholeApplications;
 
   @OneToMany(cascade = CascadeType.ALL)
-  @LazyCollection(LazyCollectionOption.FALSE)
   @JoinColumn(name = Fields.SID)
   @JsonIgnore
   protected List<UserPermission> userPermissions;
 
+  // Precomputed permission strings, when set they are used instead of walking the permission graph
+  @Transient
+  @JsonIgnore
+  protected List<String> effectivePermissions;
+
   // Creates groups in JWTAccessToken::context::user
   @JsonView(Views.JWTAccessToken.class)
   public List<String> getGroups() {
@@ -131,6 +140,10 @@ public class User implements PolicyOwner {
   @JsonView(Views.JWTAccessToken.class)
   public List<String> getPermissions() {
 
+    if (this.effectivePermissions != null) {
+      return this.effectivePermissions;
+    }
+
     // Get user's individual permission (stream)
     val userPermissions = Optional.ofNullable(this.getUserPermissions())
         .orElse(new ArrayList<>())
@@ -0,0 +1,9 @@
+package org.overture.ego.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.BAD_REQUEST, reason= InvalidCursorException.reason)
+public class InvalidCursorException extends RuntimeException {
+  public static final String reason="The 'after' cursor is not valid, use the 'next' value of a previous page.";
+}
@@ -0,0 +1,9 @@
+package org.overture.ego.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.BAD_REQUEST, reason= InvalidFilterException.reason)
+public class InvalidFilterException extends RuntimeException {
+  public static final String reason="A filter value does not match the type of its field.";
+}
@@ -0,0 +1,10 @@
+package org.overture.ego.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.BAD_REQUEST, reason= InvalidPermissionCheckException.reason)
+public class InvalidPermissionCheckException extends RuntimeException {
+  public static final String reason="Permission checks need a subject id, a subject type of user or group, " +
+      "a policy and a mask of READ, WRITE or DENY.";
+}
@@ -0,0 +1,10 @@
+package org.overture.ego.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.BAD_REQUEST, reason= InvalidPermissionGrantException.reason)
+public class InvalidPermissionGrantException extends RuntimeException {
+  public static final String reason="Permission grants need a mask of READ, WRITE or DENY " +
+      "and user and group ids that are UUIDs.";
+}
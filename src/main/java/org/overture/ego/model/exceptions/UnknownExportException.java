@@ -0,0 +1,9 @@
+package org.overture.ego.model.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.NOT_FOUND, reason= UnknownExportException.reason)
+public class UnknownExportException extends RuntimeException {
+  public static final String reason="Export is available for users, groups, applications and permissions only.";
+}
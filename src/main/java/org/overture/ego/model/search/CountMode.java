@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.model.search;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * How the total number of results of a page request is computed:
+ * an exact count, an estimate (planner statistics or a recently cached count),
+ * or none at all, in which case pages only tell whether more results follow.
+ */
+public enum CountMode {
+  EXACT, ESTIMATE, NONE;
+
+  public static CountMode parse(String value, CountMode defaultMode) {
+    if (StringUtils.isEmpty(value)) {
+      return defaultMode;
+    }
+    for (CountMode mode : values()) {
+      if (mode.name().equalsIgnoreCase(value)) {
+        return mode;
+      }
+    }
+    return defaultMode;
+  }
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.model.search;
+
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Page request that also says how its results should be counted. The query key identifies
+ * the request being paged (path and filters, without the paging parameters), so that
+ * estimated counts can be shared by every page of the same listing.
+ */
+public interface CountingPageable extends Pageable {
+
+  CountMode getCountMode();
+
+  String getQueryKey();
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.model.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * How a filter value is matched, given as a prefix of the value: status=eq:Approved.
+ * Values without a known prefix keep matching anywhere in the field, ignoring case.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum FilterOperator {
+  CONTAINS(""),
+  EQ("eq:"),
+  PREFIX("prefix:"),
+  IN("in:"),
+  GT("gt:"),
+  LT("lt:");
+
+  /** Describes the operators in the Swagger docs of the endpoints that take {@link Filters}. */
+  public static final String DESCRIPTION =
+      "Prefix a value with eq:, prefix:, in: (comma separated), gt: or lt: to match it exactly, " +
+      "by prefix, against a list, or as a lower or upper bound";
+
+  private final String prefix;
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.model.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Page request for keyset pagination: instead of skipping offset rows, the page starts
+ * after the row the cursor points to. Without a cursor it is the first page.
+ * The total count is only computed when asked for.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPageable implements CountingPageable {
+
+  private final int pageSize;
+  @NonNull
+  private final Sort.Order order;
+  private final PageCursor after;
+  @NonNull
+  private final CountMode countMode;
+  private final String queryKey;
+
+  @Override
+  public int getPageNumber() {
+    return 0;
+  }
+
+  @Override
+  public long getOffset() {
+    return 0;
+  }
+
+  @Override
+  public Sort getSort() {
+    return Sort.by(order);
+  }
+
+  @Override
+  public Pageable next() {
+    return null;
+  }
+
+  @Override
+  public Pageable previousOrFirst() {
+    return this;
+  }
+
+  @Override
+  public Pageable first() {
+    return new KeysetPageable(pageSize, order, null, countMode, queryKey);
+  }
+
+  @Override
+  public boolean hasPrevious() {
+    return false;
+  }
+
+}
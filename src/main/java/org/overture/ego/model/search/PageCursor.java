@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.model.search;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.overture.ego.model.exceptions.InvalidCursorException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
+
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a page in keyset pagination: the sort it was read with,
+ * the value of the sort field and the id of that row. Handed to clients as an opaque
+ * base64url string, the next page starts right after this position.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+  /*
+    Constants
+   */
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @JsonProperty("s")
+  private final String sort;
+  @JsonProperty("d")
+  private final Sort.Direction direction;
+  @JsonProperty("v")
+  private final String value;
+  @JsonProperty("id")
+  private final UUID id;
+
+  @JsonCreator
+  static PageCursor create(@JsonProperty("s") String sort, @JsonProperty("d") Sort.Direction direction,
+                           @JsonProperty("v") String value, @JsonProperty("id") UUID id) {
+    if (sort == null || direction == null || id == null) {
+      throw new InvalidCursorException();
+    }
+    return new PageCursor(sort, direction, value, id);
+  }
+
+  public static PageCursor of(@NonNull Object entity, @NonNull Sort.Order order) {
+    val bean = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+    val value = DefaultConversionService.getSharedInstance()
+        .convert(bean.getPropertyValue(order.getProperty()), String.class);
+    return new PageCursor(order.getProperty(), order.getDirection(), value, (UUID) bean.getPropertyValue("id"));
+  }
+
+  public static PageCursor decode(@NonNull String cursor) {
+    try {
+      return MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), PageCursor.class);
+    } catch (Exception e) {
+      throw new InvalidCursorException();
+    }
+  }
+
+  @SneakyThrows
+  public String encode() {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+  }
+
+  @JsonIgnore
+  public Sort.Order getOrder() {
+    return new Sort.Order(direction, sort);
+  }
+
+}
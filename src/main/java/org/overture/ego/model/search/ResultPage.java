@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.model.search;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+
+/**
+ * Page read without the exact count query, after an offset or a keyset cursor.
+ * The count is an estimate or null depending on the count mode, whether more results follow
+ * is known from reading one row past the page, and keyset pages link to the next one.
+ */
+public class ResultPage<T> extends PageImpl<T> {
+
+  @Getter
+  private final Long count;
+  private final boolean hasMore;
+  @Getter
+  private final String next;
+
+  public ResultPage(List<T> content, CountingPageable pageable, Long count, boolean hasMore, String next) {
+    super(content, pageable, pageable.getOffset() + content.size());
+    this.count = count;
+    this.hasMore = hasMore;
+    this.next = next;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return hasMore;
+  }
+
+}
@@ -16,17 +16,31 @@
 
 package org.overture.ego.model.search;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
 @Data
 @RequiredArgsConstructor
+@AllArgsConstructor
 public class SearchFilter {
 
   @NonNull
   private String filterField;
   @NonNull
   private String filterValue;
+  @NonNull
+  private FilterOperator operator = FilterOperator.CONTAINS;
+
+  // Splits the operator prefix off a request value, as in eq:Approved
+  public static SearchFilter parse(@NonNull String filterField, @NonNull String value) {
+    for (FilterOperator operator : FilterOperator.values()) {
+      if (operator != FilterOperator.CONTAINS && value.startsWith(operator.getPrefix())) {
+        return new SearchFilter(filterField, value.substring(operator.getPrefix().length()), operator);
+      }
+    }
+    return new SearchFilter(filterField, value);
+  }
 
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.provider;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded thread pools for the calls made to identity providers, one per provider so that a
+ * slow provider only holds up logins through that provider. Once a pool and its queue are
+ * full, further calls are rejected right away with a RejectedExecutionException.
+ * Cancelling the future of a call interrupts it, or drops it from the queue if it has not started.
+ */
+@Slf4j
+@Component
+public class ProviderExecutors {
+
+  /*
+    Dependencies
+   */
+  @Value("${providers.pool.size:10}")
+  private int poolSize = 10;
+
+  @Value("${providers.pool.queue-size:100}")
+  private int queueSize = 100;
+
+  // How long a request waits for the provider calls it made, in milliseconds
+  @Getter
+  @Value("${providers.timeout:30000}")
+  private long timeout = 30000;
+
+  /*
+    Variables
+   */
+  private final ConcurrentMap<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+  public <T> CompletableFuture<T> supply(@NonNull String provider, @NonNull Supplier<T> call) {
+    val future = new CompletableFuture<T>();
+    val task = executors.computeIfAbsent(provider, this::create).submit(() -> {
+      try {
+        future.complete(call.get());
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+    future.whenComplete((value, ex) -> {
+      if (future.isCancelled()) {
+        task.cancel(true);
+      }
+    });
+    return future;
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+  }
+
+  private ThreadPoolExecutor create(String provider) {
+    log.info("Creating {} thread pool with {} threads and {} queued calls", provider, poolSize, queueSize);
+    val count = new AtomicInteger();
+    return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize), r -> {
+          val thread = new Thread(r, provider + "-provider-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+  }
+
+}
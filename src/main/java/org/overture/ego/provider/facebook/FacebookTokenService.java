@@ -22,8 +22,10 @@ import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.overture.ego.provider.ProviderExecutors;
 import org.overture.ego.token.IDToken;
 import org.overture.ego.utils.TypeUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -39,6 +41,7 @@ import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 
 @Slf4j
@@ -67,6 +70,8 @@ public class FacebookTokenService {
     Dependencies
    */
   protected RestTemplate fbConnector;
+  @Autowired
+  private ProviderExecutors providerExecutors;
 
   /*
   Constants
@@ -77,6 +82,7 @@ public class FacebookTokenService {
   private final static String USER_LAST_NAME = "family_name";
   private final static String IS_VALID = "is_valid";
   private final static String DATA = "data";
+  private final static String PROVIDER = "facebook";
 
 
   @PostConstruct
@@ -134,6 +140,17 @@ public class FacebookTokenService {
     }
   }
 
+  /*
+    Run on the Facebook pool, callers chain getting the user details after validating the token
+   */
+  public CompletableFuture<Boolean> validTokenAsync(String fbToken) {
+    return providerExecutors.supply(PROVIDER, () -> validToken(fbToken));
+  }
+
+  public CompletableFuture<Optional<IDToken>> getAuthInfoAsync(String fbToken) {
+    return providerExecutors.supply(PROVIDER, () -> getAuthInfo(fbToken));
+  }
+
   private Optional<Map> getJsonResponseAsMap(InputStream jsonResponse){
 
     val objectMapper = new ObjectMapper();
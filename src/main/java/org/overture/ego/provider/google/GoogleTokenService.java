@@ -27,8 +27,10 @@ import lombok.SneakyThrows;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.overture.ego.provider.ProviderExecutors;
 import org.overture.ego.token.IDToken;
 import org.overture.ego.utils.TypeUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.jwt.JwtHelper;
 import org.springframework.stereotype.Component;
@@ -39,13 +41,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Component
 public class GoogleTokenService {
 
+  private static final String PROVIDER = "google";
+
   @Value("${google.client.Ids}")
   private String clientIDs;
+  @Autowired
+  private ProviderExecutors providerExecutors;
   private HttpTransport transport;
   private JsonFactory jsonFactory;
   private GoogleIdTokenVerifier verifier;
@@ -72,6 +79,10 @@ public class GoogleTokenService {
     return (idToken != null);
   }
 
+  public CompletableFuture<Boolean> validTokenAsync(String token) {
+    return providerExecutors.supply(PROVIDER, () -> validToken(token));
+  }
+
   @Synchronized
   private void initVerifier() {
     List<String> targetAudience;
@@ -6,7 +6,9 @@ import lombok.val;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.jetbrains.annotations.NotNull;
+import org.overture.ego.provider.ProviderExecutors;
 import org.overture.ego.token.IDToken;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
@@ -26,6 +28,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -49,9 +52,13 @@ public class ORCIDTokenService {
     @Value("${orcid.client.redirectUri}")
     private String redirectUri;
 
+    @Autowired
+    private ProviderExecutors providerExecutors;
+
     private RestTemplate orcidConnector;
     private AbstractXPathTemplate xpathTemplate;
 
+    private final static String PROVIDER = "orcid";
     private final static List<MediaType> ORCID_XML_MEDIATYPE = Collections.singletonList(MediaType.valueOf("application/vnd.orcid+xml"));
 
     @PostConstruct
@@ -77,6 +84,11 @@ public class ORCIDTokenService {
 
     }
 
+    // The user info request needs the token the code is exchanged for, so both run one after the other
+    public CompletableFuture<ORCIDResult> getAuthInfoAsync(String code) {
+        return providerExecutors.supply(PROVIDER, () -> getAuthInfo(code));
+    }
+
     @NotNull
     private ResponseEntity<String> getUserInfo(String accessToken, String orcId) {
         HttpHeaders headers = new HttpHeaders();
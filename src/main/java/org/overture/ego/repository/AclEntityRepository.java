@@ -2,12 +2,19 @@ package org.overture.ego.repository;
 
 import org.overture.ego.model.entity.Policy;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import javax.persistence.QueryHint;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 public interface AclEntityRepository
     extends PagingAndSortingRepository<Policy, UUID>, JpaSpecificationExecutor {
 
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HINT_CACHE_REGION, value = "policy-queries")})
   Policy findOneByNameIgnoreCase(String name);
 }
@@ -19,18 +19,37 @@ package org.overture.ego.repository;
 import org.overture.ego.model.entity.Application;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import javax.persistence.QueryHint;
 import java.util.UUID;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 
 public interface ApplicationRepository
-        extends PagingAndSortingRepository<Application, UUID>, JpaSpecificationExecutor {
+        extends PagingAndSortingRepository<Application, UUID>, JpaSpecificationExecutor<Application> {
+
+  @EntityGraph("application-summary")
+  Page<Application> findAll(Specification<Application> specification, Pageable pageable);
 
+  @EntityGraph("application-for-token")
   Application findOneByClientIdIgnoreCase(String clientId);
+
+  // Client credential checks only need the application itself, which is served from the second-level cache
+  @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HINT_CACHE_REGION, value = "application-queries")})
+  Application findCachedByClientIdIgnoreCase(String clientId);
+
   Application findOneByNameIgnoreCase(String name);
   Application findOneByName(String name);
+
+  @EntityGraph("application-summary")
   Page<Application> findAllByStatusIgnoreCase(String status, Pageable pageable);
 
 }
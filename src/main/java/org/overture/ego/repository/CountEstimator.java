@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Table;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate result counts for large listings. Unfiltered listings use the row estimate
+ * Postgres keeps for the table, anything else an exact count that is reused for every
+ * page of the same query until its time to live runs out.
+ */
+@Repository
+public class CountEstimator {
+
+  /*
+    Constants
+   */
+  private static final String RELTUPLES_QUERY = "select reltuples from pg_class where relname = :table";
+
+  /*
+    Dependencies
+   */
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${pagination.count.estimate.ttl:60000}")
+  private long ttl = 60000;
+
+  @Value("${pagination.count.estimate.max-size:10000}")
+  private int maxSize = 10000;
+
+  /*
+    Variables
+   */
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  public long estimate(@NonNull Class<?> type, String queryKey, boolean unfiltered, @NonNull LongSupplier exactCount) {
+    if (unfiltered) {
+      val rows = getTableEstimate(type);
+      // never analyzed tables have no estimate yet
+      if (rows > 0) {
+        return rows;
+      }
+    } else if (queryKey == null) {
+      return exactCount.getAsLong();
+    }
+
+    val key = type.getName() + ":" + (unfiltered ? "" : queryKey);
+    val now = System.currentTimeMillis();
+    val entry = entries.get(key);
+    if (entry != null && !entry.isExpired(now)) {
+      return entry.getCount();
+    }
+    val count = exactCount.getAsLong();
+    if (entries.size() >= maxSize) {
+      entries.values().removeIf(e -> e.isExpired(now));
+    }
+    if (entries.size() < maxSize) {
+      entries.put(key, new Entry(count, now + ttl));
+    }
+    return count;
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  private long getTableEstimate(Class<?> type) {
+    val table = type.getAnnotation(Table.class);
+    if (table == null) {
+      return -1;
+    }
+    val result = entityManager.createNativeQuery(RELTUPLES_QUERY)
+        .setParameter("table", table.name())
+        .getResultList();
+    return result.isEmpty() ? -1 : ((Number) result.get(0)).longValue();
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class Entry {
+    private final long count;
+    private final long expiresAt;
+
+    boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+
+}
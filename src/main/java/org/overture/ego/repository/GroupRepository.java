@@ -20,16 +20,27 @@ package org.overture.ego.repository;
 import org.overture.ego.model.entity.Group;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 
 public interface GroupRepository extends
-        PagingAndSortingRepository<Group, UUID>, JpaSpecificationExecutor {
+        PagingAndSortingRepository<Group, UUID>, JpaSpecificationExecutor<Group> {
+
+  @EntityGraph("group-summary")
+  Page<Group> findAll(Specification<Group> specification, Pageable pageable);
 
   Group findOneByNameIgnoreCase(String name);
+
+  @EntityGraph("group-summary")
   Page<Group> findAllByStatusIgnoreCase(String status, Pageable pageable);
 
+  @EntityGraph("group-with-permissions")
+  Optional<Group> findWithPermissionsById(UUID id);
+
 }
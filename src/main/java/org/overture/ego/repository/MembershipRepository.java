@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.repository;
+
+import lombok.NonNull;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.UUID;
+
+/**
+ * Adds and removes memberships (users in groups, applications of users and groups) with one
+ * set based statement on the join table, whatever the number of members, instead of loading
+ * and saving the entities on both sides.
+ * Pending entity changes are flushed first so the statements see them. Entities of the session
+ * are not updated by these statements, callers refresh the owner when they return it.
+ */
+@Repository
+public class MembershipRepository {
+
+  public enum Membership {
+    USER_GROUPS("usergroup", "userid", "grpid", "egogroup"),
+    GROUP_USERS("usergroup", "grpid", "userid", "egouser"),
+    USER_APPLICATIONS("userapplication", "userid", "appid", "egoapplication"),
+    GROUP_APPLICATIONS("groupapplication", "grpid", "appid", "egoapplication");
+
+    private final String add;
+    private final String remove;
+
+    Membership(String table, String ownerColumn, String memberColumn, String memberTable) {
+      // members that do not exist are counted, so that they can be reported instead of being ignored
+      this.add = String.format("WITH found AS (SELECT id FROM %s WHERE id = ANY(?)), "
+          + "added AS (INSERT INTO %s (%s, %s) SELECT ?, id FROM found ON CONFLICT DO NOTHING RETURNING 1) "
+          + "SELECT (SELECT count(*) FROM found), (SELECT count(*) FROM added)",
+          memberTable, table, ownerColumn, memberColumn);
+      this.remove = String.format("DELETE FROM %s WHERE %s = ? AND %s = ANY(?)", table, ownerColumn, memberColumn);
+    }
+  }
+
+  /*
+    Dependencies
+   */
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Adds the members that are not members of the owner yet and returns how many were added.
+   * Throws EntityNotFoundException, and adds nothing once the transaction rolls back,
+   * when one of the members does not exist.
+   */
+  public int add(@NonNull Membership membership, @NonNull UUID owner, @NonNull Collection<UUID> members) {
+    val distinct = new LinkedHashSet<UUID>(members);
+    if (distinct.isEmpty()) {
+      return 0;
+    }
+    entityManager.flush();
+    val counts = jdbcTemplate.query(membership.add, ps -> {
+      ps.setArray(1, ps.getConnection().createArrayOf("uuid", distinct.toArray()));
+      ps.setObject(2, owner);
+    }, rs -> {
+      rs.next();
+      return new long[] { rs.getLong(1), rs.getLong(2) };
+    });
+    if (counts[0] < distinct.size()) {
+      throw new EntityNotFoundException();
+    }
+    return (int) counts[1];
+  }
+
+  /**
+   * Removes the members from the owner and returns how many memberships were removed.
+   */
+  public int remove(@NonNull Membership membership, @NonNull UUID owner, @NonNull Collection<UUID> members) {
+    if (members.isEmpty()) {
+      return 0;
+    }
+    entityManager.flush();
+    return jdbcTemplate.update(membership.remove, ps -> {
+      ps.setObject(1, owner);
+      ps.setArray(2, ps.getConnection().createArrayOf("uuid", members.toArray()));
+    });
+  }
+
+  /**
+   * Reloads an entity of the session, with its memberships, after they were changed.
+   */
+  public <T> T refresh(@NonNull T entity) {
+    if (entityManager.contains(entity)) {
+      entityManager.refresh(entity);
+    }
+    return entity;
+  }
+
+}
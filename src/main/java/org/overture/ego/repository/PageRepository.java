@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.repository;
+
+import lombok.NonNull;
+import lombok.val;
+import org.hibernate.query.criteria.internal.predicate.CompoundPredicate;
+import org.overture.ego.model.search.CountingPageable;
+import org.overture.ego.model.search.KeysetPageable;
+import org.overture.ego.model.search.PageCursor;
+import org.overture.ego.model.search.ResultPage;
+import org.overture.ego.repository.queryspecification.SpecificationBase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+/*
+  Reads pages for any entity with an "id" without the exact count query, unless the page
+  request asks for it: keyset pages seek past their cursor, offset pages skip offset rows.
+  One row more than the page size is read to tell whether more results follow.
+ */
+@Repository
+public class PageRepository {
+
+  /*
+    Constants
+   */
+  private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+
+  /*
+    Dependencies
+   */
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  private CountEstimator countEstimator;
+
+  public <T> ResultPage<T> findAll(@NonNull JpaSpecificationExecutor<T> repository, @NonNull Class<T> type,
+                                   String entityGraph, @NonNull Specification<T> specification,
+                                   @NonNull CountingPageable pageable) {
+    val builder = entityManager.getCriteriaBuilder();
+    val query = builder.createQuery(type);
+    val root = query.from(type);
+
+    val filter = specification.toPredicate(root, query, builder);
+    val unfiltered = isEmpty(filter) && root.getJoins().isEmpty();
+
+    Sort.Order order = null;
+    PageCursor after = null;
+    if (pageable instanceof KeysetPageable) {
+      order = ((KeysetPageable) pageable).getOrder();
+      after = ((KeysetPageable) pageable).getAfter();
+    } else if (pageable.getSort().isSorted()) {
+      order = pageable.getSort().iterator().next();
+    }
+    val seek = after == null ? null : SpecificationBase.<T>after(after).toPredicate(root, query, builder);
+    if (filter != null && seek != null) {
+      query.where(filter, seek);
+    } else if (filter != null || seek != null) {
+      query.where(filter != null ? filter : seek);
+    }
+
+    // Ties on the sort field are broken by id so that every row has a unique position.
+    // Unsorted pages keep the order of the specification, if any
+    if (order == null) {
+      query.select(root);
+    } else if ("id".equals(order.getProperty())) {
+      query.select(root).orderBy(toOrder(builder, root, "id", order.getDirection()));
+    } else {
+      query.select(root).orderBy(toOrder(builder, root, order.getProperty(), order.getDirection()),
+          toOrder(builder, root, "id", order.getDirection()));
+    }
+
+    val typedQuery = entityManager.createQuery(query)
+        .setFirstResult((int) pageable.getOffset())
+        .setMaxResults(pageable.getPageSize() + 1);
+    if (entityGraph != null) {
+      typedQuery.setHint(FETCH_GRAPH, entityManager.getEntityGraph(entityGraph));
+    }
+    val rows = typedQuery.getResultList();
+
+    val hasMore = rows.size() > pageable.getPageSize();
+    val content = hasMore ? rows.subList(0, pageable.getPageSize()) : rows;
+    String next = null;
+    if (pageable instanceof KeysetPageable && hasMore && !content.isEmpty()) {
+      next = PageCursor.of(content.get(content.size() - 1), order).encode();
+    }
+    return new ResultPage<>(content, pageable, count(repository, type, specification, pageable, unfiltered),
+        hasMore, next);
+  }
+
+  private <T> Long count(JpaSpecificationExecutor<T> repository, Class<T> type, Specification<T> specification,
+                         CountingPageable pageable, boolean unfiltered) {
+    switch (pageable.getCountMode()) {
+      case EXACT:
+        return repository.count(specification);
+      case ESTIMATE:
+        return countEstimator.estimate(type, pageable.getQueryKey(), unfiltered, () -> repository.count(specification));
+      default:
+        return null;
+    }
+  }
+
+  // An "and" of nothing, as built by filters when none are given
+  private static boolean isEmpty(Predicate predicate) {
+    if (predicate == null) {
+      return true;
+    }
+    if (!(predicate instanceof CompoundPredicate) || predicate.isNegated()
+        || predicate.getOperator() != Predicate.BooleanOperator.AND) {
+      return false;
+    }
+    for (Expression<Boolean> expression : predicate.getExpressions()) {
+      if (!(expression instanceof Predicate) || !isEmpty((Predicate) expression)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <T> Order toOrder(CriteriaBuilder builder, Root<T> root, String field, Sort.Direction direction) {
+    return direction == Sort.Direction.ASC ? builder.asc(root.get(field)) : builder.desc(root.get(field));
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.repository;
+
+import lombok.NonNull;
+import lombok.val;
+import org.overture.ego.model.enums.PolicyMask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import javax.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.UUID;
+
+/**
+ * Grants and revokes one mask on a policy for many users or groups with a single statement on
+ * acluserpermission or aclgrouppermission. Subjects that already have the mask on the policy
+ * are skipped, so a grant can safely be repeated.
+ * Like memberships, pending entity changes are flushed first and the permissions of entities
+ * already loaded in the session are not updated.
+ */
+@Repository
+public class PermissionGrantRepository {
+
+  public enum Subject {
+    USER("acluserpermission", "egouser"),
+    GROUP("aclgrouppermission", "egogroup");
+
+    private final String grant;
+    private final String revoke;
+    private final String revokeMask;
+
+    Subject(String table, String subjectTable) {
+      // ids of the new rows are paired with the subjects, unknown subjects are counted to be reported
+      this.grant = String.format("WITH subject AS ("
+          + "SELECT s.id, u.pid FROM unnest(?, ?) AS u (pid, sid) JOIN %s s ON s.id = u.sid), "
+          + "added AS (INSERT INTO %s (id, entity, sid, mask) "
+          + "SELECT subject.pid, ?, subject.id, CAST(? AS aclmask) FROM subject WHERE NOT EXISTS ("
+          + "SELECT 1 FROM %s p WHERE p.sid = subject.id AND p.entity = ? AND p.mask = CAST(? AS aclmask)) "
+          + "RETURNING 1) "
+          + "SELECT (SELECT count(*) FROM subject), (SELECT count(*) FROM added)",
+          subjectTable, table, table);
+      this.revoke = String.format("DELETE FROM %s WHERE entity = ? AND sid = ANY(?)", table);
+      this.revokeMask = revoke + " AND mask = CAST(? AS aclmask)";
+    }
+  }
+
+  /*
+    Dependencies
+   */
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /**
+   * Grants the mask to the subjects that do not have it yet and returns how many were granted.
+   * Throws EntityNotFoundException, and grants nothing once the transaction rolls back,
+   * when one of the subjects does not exist.
+   */
+  public int grant(@NonNull Subject subject, @NonNull UUID policy, @NonNull PolicyMask mask,
+                   @NonNull Collection<UUID> subjects) {
+    val distinct = new LinkedHashSet<UUID>(subjects);
+    if (distinct.isEmpty()) {
+      return 0;
+    }
+    val ids = new UUID[distinct.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = UUID.randomUUID();
+    }
+    entityManager.flush();
+    val counts = jdbcTemplate.query(subject.grant, ps -> {
+      ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+      ps.setArray(2, ps.getConnection().createArrayOf("uuid", distinct.toArray()));
+      ps.setObject(3, policy);
+      ps.setString(4, mask.toString());
+      ps.setObject(5, policy);
+      ps.setString(6, mask.toString());
+    }, rs -> {
+      rs.next();
+      return new long[] { rs.getLong(1), rs.getLong(2) };
+    });
+    if (counts[0] < distinct.size()) {
+      throw new EntityNotFoundException();
+    }
+    return (int) counts[1];
+  }
+
+  /**
+   * Revokes the mask, or every mask when null, the subjects have on the policy and returns
+   * how many permissions were removed.
+   */
+  public int revoke(@NonNull Subject subject, @NonNull UUID policy, PolicyMask mask,
+                    @NonNull Collection<UUID> subjects) {
+    if (subjects.isEmpty()) {
+      return 0;
+    }
+    entityManager.flush();
+    return jdbcTemplate.update(mask == null ? subject.revoke : subject.revokeMask, ps -> {
+      ps.setObject(1, policy);
+      ps.setArray(2, ps.getConnection().createArrayOf("uuid", subjects.toArray()));
+      if (mask != null) {
+        ps.setString(3, mask.toString());
+      }
+    });
+  }
+
+}
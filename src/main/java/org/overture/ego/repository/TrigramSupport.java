@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Tells whether the database has the pg_trgm extension, so that searches can be ranked by
+ * trigram similarity. Other databases (H2) rank searches with plain prefix matches instead.
+ */
+@Slf4j
+@Repository
+public class TrigramSupport {
+
+  /*
+    Constants
+   */
+  private static final String POSTGRES = "PostgreSQL";
+  private static final String EXTENSION_QUERY = "select count(*) from pg_extension where extname = 'pg_trgm'";
+
+  /*
+    Dependencies
+   */
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /*
+    Variables
+   */
+  private volatile Boolean available;
+
+  public boolean isAvailable() {
+    if (available == null) {
+      available = checkAvailable();
+      log.info("Trigram search ranking is {}", available ? "enabled" : "not available, using prefix matches");
+    }
+    return available;
+  }
+
+  private boolean checkAvailable() {
+    val product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+    if (!POSTGRES.equals(product)) {
+      return false;
+    }
+    val installed = jdbcTemplate.queryForObject(EXTENSION_QUERY, Long.class);
+    return installed != null && installed > 0;
+  }
+
+}
@@ -19,16 +19,31 @@ package org.overture.ego.repository;
 import org.overture.ego.model.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 
 public interface UserRepository  extends
-        PagingAndSortingRepository<User, UUID>, JpaSpecificationExecutor {
+        PagingAndSortingRepository<User, UUID>, JpaSpecificationExecutor<User> {
 
+  @EntityGraph("user-summary")
+  Page<User> findAll(Specification<User> specification, Pageable pageable);
+
+  @EntityGraph("user-summary")
   Page<User> findAllByStatusIgnoreCase(String status, Pageable pageable);
+
+  @EntityGraph("user-for-token")
   User findOneByNameIgnoreCase(String name);
 
+  @EntityGraph("user-for-token")
+  Optional<User> findForTokenById(UUID id);
+
+  @EntityGraph("user-with-permissions")
+  Optional<User> findWithPermissionsById(UUID id);
+
 }
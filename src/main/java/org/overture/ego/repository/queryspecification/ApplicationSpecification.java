@@ -32,7 +32,7 @@ public class ApplicationSpecification extends SpecificationBase<Application> {
     val finalText = QueryUtils.prepareForQuery(text);
     return (root, query, builder) ->
             builder.or(getQueryPredicates(builder,root,finalText,
-                    "name","clientId","clientSecret","description","status")
+                    "name","clientId","description","status")
     );
   }
 
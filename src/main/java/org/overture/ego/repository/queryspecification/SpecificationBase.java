@@ -19,18 +19,32 @@ package org.overture.ego.repository.queryspecification;
 
 import lombok.NonNull;
 import lombok.val;
+import org.overture.ego.model.exceptions.InvalidCursorException;
+import org.overture.ego.model.exceptions.InvalidFilterException;
+import org.overture.ego.model.search.FilterOperator;
+import org.overture.ego.model.search.PageCursor;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.utils.QueryUtils;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.annotation.Nonnull;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.Attribute;
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 public class SpecificationBase<T> {
+
+  private static final char ESCAPE = '\\';
+
   protected static <T> Predicate[] getQueryPredicates(@NonNull CriteriaBuilder builder,
                                                       @NonNull Root<T> root,
                                                       String queryText,
@@ -42,13 +56,109 @@ public class SpecificationBase<T> {
   public static <T> Predicate filterByField(@NonNull CriteriaBuilder builder, @NonNull Root<T> root,
                                             @NonNull String fieldName,String fieldValue) {
     val finalText = QueryUtils.prepareForQuery(fieldValue);
-    return builder.like(builder.lower(root.get(fieldName)), finalText);
+    return builder.like(builder.lower(getField(root, fieldName)), finalText);
   }
 
   public static <T> Specification<T> filterBy(@Nonnull List<SearchFilter> filters) {
     return (root, query, builder) -> builder.and(
-            filters.stream().map(f -> filterByField(builder,root,
-                    f.getFilterField(),f.getFilterValue())).toArray(Predicate[]::new)
+            filters.stream().map(f -> filter(builder, root, f)).toArray(Predicate[]::new)
     );
   }
+
+  /*
+    Apart from contains, operators compile to predicates an index can serve: text fields are
+    compared lowercased (matching the lower(column) indexes), other fields in their own type.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Predicate filter(@NonNull CriteriaBuilder builder, @NonNull Root<T> root,
+                                     @NonNull SearchFilter filter) {
+    if (filter.getOperator() == FilterOperator.CONTAINS) {
+      return filterByField(builder, root, filter.getFilterField(), filter.getFilterValue());
+    }
+    Path<Comparable> field = getField(root, filter.getFilterField());
+    val text = String.class.equals(field.getJavaType());
+    Expression<Comparable> target = text ? (Expression) builder.lower((Path) field) : field;
+    val value = filter.getFilterValue();
+
+    switch (filter.getOperator()) {
+      case EQ:
+        return builder.equal(target, toFilterValue(field, value));
+      case PREFIX:
+        if (!text) {
+          throw new InvalidFilterException();
+        }
+        return builder.like((Expression) target, escapeLike(value.toLowerCase()) + "%", ESCAPE);
+      case IN:
+        val values = Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(v -> !v.isEmpty())
+            .map(v -> toFilterValue(field, v))
+            .toArray();
+        return values.length == 0 ? builder.disjunction() : target.in(values);
+      case GT:
+        return builder.greaterThan(field, toFieldType(field, value, InvalidFilterException::new));
+      case LT:
+        return builder.lessThan(field, toFieldType(field, value, InvalidFilterException::new));
+      default:
+        throw new InvalidFilterException();
+    }
+  }
+
+  /*
+    Rows after the cursor in (sort field, id) order, both in the direction of the cursor.
+    Null sort values come last in ascending and first in descending order, as in Postgres.
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> Specification<T> after(@NonNull PageCursor cursor) {
+    return (root, query, builder) -> {
+      val asc = cursor.getDirection() == Sort.Direction.ASC;
+      Path<UUID> id = root.get("id");
+      val afterId = asc ? builder.greaterThan(id, cursor.getId()) : builder.lessThan(id, cursor.getId());
+      if ("id".equals(cursor.getSort())) {
+        return afterId;
+      }
+
+      Path<Comparable> field = getField(root, cursor.getSort());
+      if (cursor.getValue() == null) {
+        val nullsAfter = builder.and(builder.isNull(field), afterId);
+        return asc ? nullsAfter : builder.or(nullsAfter, builder.isNotNull(field));
+      }
+
+      val value = toFieldType(field, cursor.getValue(), InvalidCursorException::new);
+      val sameValue = builder.and(builder.equal(field, value), afterId);
+      return asc
+          ? builder.or(builder.greaterThan(field, value), sameValue, builder.isNull(field))
+          : builder.or(builder.lessThan(field, value), sameValue);
+    };
+  }
+
+  // Entity attributes by name ignoring case, as request parameters and Fields are lowercase
+  private static <T, Y> Path<Y> getField(Root<T> root, String fieldName) {
+    for (Attribute<? super T, ?> attribute : root.getModel().getAttributes()) {
+      if (attribute.getName().equalsIgnoreCase(fieldName)) {
+        return root.get(attribute.getName());
+      }
+    }
+    return root.get(fieldName);
+  }
+
+  private static Comparable toFilterValue(Path<Comparable> field, String value) {
+    return String.class.equals(field.getJavaType())
+        ? value.toLowerCase()
+        : toFieldType(field, value, InvalidFilterException::new);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Comparable toFieldType(Path<Comparable> field, String value,
+                                        Supplier<? extends RuntimeException> error) {
+    try {
+      return DefaultConversionService.getSharedInstance().convert(value, field.getJavaType());
+    } catch (RuntimeException e) {
+      throw error.get();
+    }
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
 }
@@ -24,6 +24,7 @@ import org.overture.ego.utils.QueryUtils;
 import org.springframework.data.jpa.domain.Specification;
 
 import javax.annotation.Nonnull;
+import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Join;
 import java.util.UUID;
 
@@ -37,6 +38,35 @@ public class UserSpecification extends SpecificationBase<User> {
     );
   }
 
+  /*
+    Orders search results by relevance, unless the page request sorts them otherwise:
+    by trigram similarity of the best matching field where pg_trgm is available,
+    otherwise names and emails starting with the text come first.
+   */
+  public static Specification<User> rankedBy(@Nonnull String text, boolean trigram) {
+    val lowerText = text.toLowerCase();
+    return (root, query, builder) -> {
+      if (trigram) {
+        Expression<Double> rank = builder.function("greatest", Double.class,
+            builder.function("similarity", Double.class, builder.lower(root.get("name")), builder.literal(lowerText)),
+            builder.function("similarity", Double.class, builder.lower(root.get("email")), builder.literal(lowerText)),
+            builder.function("similarity", Double.class, builder.lower(root.get("firstName")),
+                builder.literal(lowerText)),
+            builder.function("similarity", Double.class, builder.lower(root.get("lastName")),
+                builder.literal(lowerText)));
+        query.orderBy(builder.desc(rank), builder.asc(root.get("id")));
+      } else {
+        val prefix = lowerText + "%";
+        Expression<Integer> rank = builder.<Integer>selectCase()
+            .when(builder.or(builder.like(builder.lower(root.get("name")), prefix),
+                builder.like(builder.lower(root.get("email")), prefix)), 0)
+            .otherwise(1);
+        query.orderBy(builder.asc(rank), builder.asc(root.get("name")), builder.asc(root.get("id")));
+      }
+      return null;
+    };
+  }
+
   public static Specification<User> inGroup(@Nonnull UUID groupId) {
     return (root, query, builder) ->
     {
@@ -19,6 +19,8 @@ package org.overture.ego.security;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.overture.ego.model.entity.User;
+import org.overture.ego.token.TokenService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.core.Authentication;
 
@@ -27,6 +29,8 @@ import org.springframework.security.core.Authentication;
 @Profile("auth")
 public class SecureAuthorizationManager implements AuthorizationManager {
 
+  @Autowired
+  private TokenService tokenService;
 
   public boolean authorize(@NonNull Authentication authentication) {
     User user = (User)authentication.getPrincipal();
@@ -34,8 +38,9 @@ public class SecureAuthorizationManager implements AuthorizationManager {
   }
 
   public boolean authorizeWithAdminRole(@NonNull Authentication authentication) {
-    User user = (User)authentication.getPrincipal();
-    return "admin".equals(user.getRole().toLowerCase()) && isActiveUser(user);
+    // Admin access is always decided on the current database state, never on token claims alone
+    User user = tokenService.refreshTokenUserInfo((User)authentication.getPrincipal());
+    return user != null && "admin".equals(user.getRole().toLowerCase()) && isActiveUser(user);
   }
 
   public boolean authorizeWithGroup(@NonNull Authentication authentication, String groupName) {
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.overture.ego.model.enums.PolicyMask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compact in-memory ACL. Policies, users and groups get dense integer ids, and every user and
+ * group holds one bitset of policy ids per mask, plus the ids of its groups for users.
+ * The effective permissions of a user are its own bitsets OR-ed with those of its groups,
+ * DENY taking precedence, so evaluating them takes a few bitwise operations per group.
+ *
+ * Users and groups are loaded from the database on first use. Changes are applied in place
+ * for grants, revocations and memberships, other changes drop the entries they affect.
+ * Entries are never modified once published, updates replace them.
+ */
+@Slf4j
+@Component
+public class AclIndex {
+
+  /*
+    Constants
+   */
+  private static final String SELECT_USER_PERMISSIONS = "SELECT p.entity, e.name, p.mask "
+      + "FROM acluserpermission p JOIN aclentity e ON e.id = p.entity WHERE p.sid = ?";
+  private static final String SELECT_GROUP_PERMISSIONS = "SELECT p.entity, e.name, p.mask "
+      + "FROM aclgrouppermission p JOIN aclentity e ON e.id = p.entity WHERE p.sid = ?";
+  private static final String SELECT_USER_GROUPS = "SELECT grpId FROM usergroup WHERE userId = ?";
+
+  /*
+    Dependencies
+   */
+  @Value("${permissions.cache.max-size:100000}")
+  private int maxSize = 100000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /*
+    Variables
+   */
+  private volatile State state = new State();
+
+  public EffectivePermissions getUserPermissions(@NonNull UUID userId) {
+    val current = state;
+    val entry = getUser(current, userId);
+    val masks = entry.masks.copy();
+    for (val group : entry.groups) {
+      masks.or(getGroup(current, current.groups.uuid(group)));
+    }
+    return new EffectivePermissions(current.policies, masks);
+  }
+
+  public EffectivePermissions getGroupPermissions(@NonNull UUID groupId) {
+    val current = state;
+    return new EffectivePermissions(current.policies, getGroup(current, groupId).copy());
+  }
+
+  /*
+    Updates, applied once the changes they reflect are committed. Only loaded entries are
+    updated, subjects that were never loaded have no id and are skipped.
+   */
+  public synchronized void granted(boolean groups, @NonNull Collection<UUID> subjects, @NonNull UUID policyId,
+                                   @NonNull String policyName, @NonNull PolicyMask mask) {
+    val current = state;
+    current.generation.incrementAndGet();
+    if (current.policies.find(policyId) != null) {
+      // Keeps the name of the policy current
+      current.policies.id(policyId, policyName);
+    }
+    for (val subject : subjects) {
+      val id = (groups ? current.groups : current.users).find(subject);
+      if (id == null) {
+        continue;
+      }
+      val policy = current.policies.id(policyId, policyName);
+      if (groups) {
+        current.groupMasks.computeIfPresent(id, (k, masks) -> masks.with(policy, mask));
+      } else {
+        current.userEntries.computeIfPresent(id,
+            (k, entry) -> new UserEntry(entry.masks.with(policy, mask), entry.groups));
+      }
+    }
+  }
+
+  public synchronized void revoked(boolean groups, @NonNull Collection<UUID> subjects, @NonNull UUID policyId,
+                                   PolicyMask mask) {
+    val current = state;
+    current.generation.incrementAndGet();
+    val policy = current.policies.find(policyId);
+    if (policy == null) {
+      // Nobody loaded has a permission on the policy
+      return;
+    }
+    for (val subject : subjects) {
+      val id = (groups ? current.groups : current.users).find(subject);
+      if (id == null) {
+        continue;
+      }
+      if (groups) {
+        current.groupMasks.computeIfPresent(id, (k, masks) -> masks.without(policy, mask));
+      } else {
+        current.userEntries.computeIfPresent(id,
+            (k, entry) -> new UserEntry(entry.masks.without(policy, mask), entry.groups));
+      }
+    }
+  }
+
+  public synchronized void membersAdded(@NonNull UUID groupId, @NonNull Collection<UUID> userIds) {
+    val current = state;
+    current.generation.incrementAndGet();
+    for (val userId : userIds) {
+      val user = current.users.find(userId);
+      if (user != null && current.userEntries.containsKey(user)) {
+        val group = current.groups.id(groupId);
+        current.userEntries.computeIfPresent(user, (k, entry) -> entry.withGroup(group));
+      }
+    }
+  }
+
+  public synchronized void membersRemoved(@NonNull UUID groupId, @NonNull Collection<UUID> userIds) {
+    val current = state;
+    current.generation.incrementAndGet();
+    val group = current.groups.find(groupId);
+    if (group == null) {
+      // No loaded user is a member
+      return;
+    }
+    for (val userId : userIds) {
+      val user = current.users.find(userId);
+      if (user != null) {
+        current.userEntries.computeIfPresent(user, (k, entry) -> entry.withoutGroup(group));
+      }
+    }
+  }
+
+  public synchronized void evictUsers(@NonNull Collection<UUID> userIds) {
+    val current = state;
+    current.generation.incrementAndGet();
+    evict(current.users, current.userEntries, userIds);
+  }
+
+  public synchronized void evictGroups(@NonNull Collection<UUID> groupIds) {
+    val current = state;
+    current.generation.incrementAndGet();
+    evict(current.groups, current.groupMasks, groupIds);
+  }
+
+  public synchronized void clear() {
+    state.generation.incrementAndGet();
+    state = new State();
+  }
+
+  private static void evict(Dictionary dictionary, ConcurrentMap<Integer, ?> entries, Collection<UUID> uuids) {
+    for (val uuid : uuids) {
+      val id = dictionary.find(uuid);
+      if (id != null) {
+        entries.remove(id);
+      }
+    }
+  }
+
+  /*
+    Loading. Ids are given on loading, to entries with permissions or groups and to the groups of
+    users, so looking up unknown users and groups does not grow the index. An entry loaded while
+    an update was applied may already be stale, it is used for the lookup at hand but not kept.
+   */
+  private UserEntry getUser(State current, UUID userId) {
+    val user = current.users.find(userId);
+    val entry = user == null ? null : current.userEntries.get(user);
+    if (entry != null) {
+      return entry;
+    }
+    val generation = current.generation.get();
+    val masks = loadMasks(current, SELECT_USER_PERMISSIONS, userId);
+    val groups = jdbcTemplate.query(SELECT_USER_GROUPS, (rs, i) -> current.groups.id((UUID) rs.getObject(1)), userId);
+    val loaded = new UserEntry(masks, groups.stream().mapToInt(Integer::intValue).toArray());
+    if (user != null || !masks.isEmpty() || loaded.groups.length > 0) {
+      publish(current, generation, current.users, current.userEntries, userId, loaded);
+    }
+    return loaded;
+  }
+
+  private Masks getGroup(State current, UUID groupId) {
+    val group = current.groups.find(groupId);
+    val masks = group == null ? null : current.groupMasks.get(group);
+    if (masks != null) {
+      return masks;
+    }
+    val generation = current.generation.get();
+    val loaded = loadMasks(current, SELECT_GROUP_PERMISSIONS, groupId);
+    if (group != null || !loaded.isEmpty()) {
+      publish(current, generation, current.groups, current.groupMasks, groupId, loaded);
+    }
+    return loaded;
+  }
+
+  /*
+    Under the lock the updates take, so that no update can be applied between the generation
+    check and the put
+   */
+  private synchronized <T> void publish(State current, long generation, Dictionary dictionary,
+                                        ConcurrentMap<Integer, T> entries, UUID uuid, T loaded) {
+    if (state != current || current.generation.get() != generation) {
+      return;
+    }
+    if (dictionary.size() >= maxSize) {
+      reset(current);
+    } else {
+      entries.putIfAbsent(dictionary.id(uuid), loaded);
+    }
+  }
+
+  // Dictionaries only ever grow, so the whole index is dropped rather than some of its entries
+  private synchronized void reset(State full) {
+    if (state == full) {
+      log.debug("ACL index reached {} users and {} groups, clearing", full.users.size(), full.groups.size());
+      clear();
+    }
+  }
+
+  private Masks loadMasks(State current, String query, UUID subject) {
+    val masks = new Masks();
+    jdbcTemplate.query(query, rs -> {
+      val policy = current.policies.id((UUID) rs.getObject(1), rs.getString(2));
+      masks.set(policy, PolicyMask.fromValue(rs.getString(3)));
+    }, subject);
+    return masks;
+  }
+
+  private static class State {
+    final Dictionary policies = new Dictionary();
+    final Dictionary users = new Dictionary();
+    final Dictionary groups = new Dictionary();
+    final ConcurrentMap<Integer, UserEntry> userEntries = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Masks> groupMasks = new ConcurrentHashMap<>();
+    // incremented by every update, so that loads running concurrently are not kept
+    final AtomicLong generation = new AtomicLong();
+  }
+
+  private static class UserEntry {
+    final Masks masks;
+    final int[] groups;
+
+    UserEntry(Masks masks, int[] groups) {
+      this.masks = masks;
+      this.groups = groups;
+    }
+
+    UserEntry withGroup(int group) {
+      for (val g : groups) {
+        if (g == group) {
+          return this;
+        }
+      }
+      val added = Arrays.copyOf(groups, groups.length + 1);
+      added[groups.length] = group;
+      return new UserEntry(masks, added);
+    }
+
+    UserEntry withoutGroup(int group) {
+      return new UserEntry(masks, Arrays.stream(groups).filter(g -> g != group).toArray());
+    }
+  }
+
+  /**
+   * Policy ids granted each mask. Instances are only modified before they are published.
+   */
+  static class Masks {
+    final BitSet read;
+    final BitSet write;
+    final BitSet deny;
+
+    Masks() {
+      this(new BitSet(), new BitSet(), new BitSet());
+    }
+
+    private Masks(BitSet read, BitSet write, BitSet deny) {
+      this.read = read;
+      this.write = write;
+      this.deny = deny;
+    }
+
+    BitSet get(PolicyMask mask) {
+      switch (mask) {
+        case READ:
+          return read;
+        case WRITE:
+          return write;
+        default:
+          return deny;
+      }
+    }
+
+    void set(int policy, PolicyMask mask) {
+      get(mask).set(policy);
+    }
+
+    boolean isEmpty() {
+      return read.isEmpty() && write.isEmpty() && deny.isEmpty();
+    }
+
+    void or(Masks other) {
+      read.or(other.read);
+      write.or(other.write);
+      deny.or(other.deny);
+    }
+
+    Masks copy() {
+      return new Masks((BitSet) read.clone(), (BitSet) write.clone(), (BitSet) deny.clone());
+    }
+
+    Masks with(int policy, PolicyMask mask) {
+      val copy = copy();
+      copy.set(policy, mask);
+      return copy;
+    }
+
+    // Without the given mask on the policy, or without any mask when null
+    Masks without(int policy, PolicyMask mask) {
+      val copy = copy();
+      if (mask == null) {
+        copy.read.clear(policy);
+        copy.write.clear(policy);
+        copy.deny.clear(policy);
+      } else {
+        copy.get(mask).clear(policy);
+      }
+      return copy;
+    }
+  }
+
+  /**
+   * Dense integer ids for uuids, and names for policies. Ids are never reused.
+   */
+  static class Dictionary {
+    private final ConcurrentMap<UUID, Integer> ids = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, UUID> uuids = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, String> names = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> byName = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    int id(UUID uuid) {
+      return ids.computeIfAbsent(uuid, u -> {
+        val id = next.getAndIncrement();
+        uuids.put(id, u);
+        return id;
+      });
+    }
+
+    int id(UUID uuid, String name) {
+      val id = id(uuid);
+      if (name != null) {
+        val previous = names.put(id, name);
+        if (!name.equals(previous)) {
+          // A renamed policy no longer answers to its old name, unless another policy took it since
+          if (previous != null) {
+            byName.remove(previous.toLowerCase(), id);
+          }
+          byName.put(name.toLowerCase(), id);
+        }
+      }
+      return id;
+    }
+
+    Integer find(UUID uuid) {
+      return ids.get(uuid);
+    }
+
+    // Policy names are matched ignoring case, like AclEntityRepository.findOneByNameIgnoreCase
+    Integer find(String name) {
+      return byName.get(name.toLowerCase());
+    }
+
+    UUID uuid(int id) {
+      return uuids.get(id);
+    }
+
+    String name(int id) {
+      return names.get(id);
+    }
+
+    int size() {
+      return ids.size();
+    }
+  }
+
+}
@@ -17,14 +17,18 @@
 package org.overture.ego.service;
 
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.overture.ego.model.dto.ChangeEvent;
 import org.overture.ego.model.entity.Application;
 import org.overture.ego.model.enums.ApplicationStatus;
+import org.overture.ego.model.enums.EntityType;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.repository.ApplicationRepository;
 import org.overture.ego.repository.queryspecification.ApplicationSpecification;
 import org.overture.ego.token.app.AppTokenClaims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.GrantedAuthority;
@@ -35,30 +39,73 @@ import org.springframework.security.oauth2.provider.ClientDetailsService;
 import org.springframework.security.oauth2.provider.ClientRegistrationException;
 import org.springframework.security.oauth2.provider.client.BaseClientDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+import reactor.bus.selector.Selectors;
 
+import javax.annotation.PostConstruct;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.util.UUID.fromString;
+import static org.overture.ego.utils.TransactionUtils.afterCompletion;
 import static org.springframework.data.jpa.domain.Specifications.where;
 
 
+@Slf4j
 @Service
+@Transactional
 public class ApplicationService extends BaseService<Application, UUID> implements ClientDetailsService  {
 
+  /*
+    Constants
+   */
+  // Same format as the one BCryptPasswordEncoder checks
+
   /*
     Dependencies
    */
+  @Value("${applications.client-cache.max-size:10000}")
+  private int clientCacheMaxSize = 10000;
+
   @Autowired
   private ApplicationRepository applicationRepository;
 
   @Autowired
   private PasswordEncoder passwordEncoder;
 
+  @Autowired
+  private ClusterEventService clusterEventService;
+
+  @Autowired
+  private EventBus eventBus;
+
+  /*
+    Variables
+   */
+  // Client details by lower-cased client id, cleared once any transaction changing applications ends
+  private final ConcurrentMap<String, ClientDetails> clients = new ConcurrentHashMap<>();
+  // incremented on every clear, so that lookups running concurrently are not kept
+  private final AtomicLong clientsGeneration = new AtomicLong();
+
+  @PostConstruct
+  private void init() {
+    eventBus.on(Selectors.$(ClusterEventService.CHANGED), this::onClusterChange);
+  }
+
   public Application create(@NonNull Application applicationInfo) {
-    return applicationRepository.save(applicationInfo);
+    applicationInfo.setClientSecret(encodeSecret(applicationInfo.getClientSecret(), null));
+    val application = applicationRepository.save(applicationInfo);
+    afterCompletion(this::clearClients);
+    // Other nodes may have cached that the client id did not exist
+    clusterEventService.publish(EntityType.APPLICATION, application.getId());
+    return application;
   }
 
   public Application get(@NonNull String applicationId) {
@@ -67,28 +114,34 @@ public class ApplicationService extends BaseService<Application, UUID> implement
 
   public Application update(@NonNull Application updatedApplicationInfo) {
     Application app = getById(applicationRepository, updatedApplicationInfo.getId());
+    val storedSecret = app.getClientSecret();
     app.update(updatedApplicationInfo);
+    app.setClientSecret(encodeSecret(app.getClientSecret(), storedSecret));
     applicationRepository.save(app);
+    afterCompletion(this::clearClients);
+    clusterEventService.publish(EntityType.APPLICATION, app.getId());
     return updatedApplicationInfo;
   }
 
   public void delete(@NonNull String applicationId) {
     applicationRepository.deleteById(fromString(applicationId));
+    afterCompletion(this::clearClients);
+    clusterEventService.publish(EntityType.APPLICATION, fromString(applicationId));
   }
 
   public Page<Application> listApps(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-   return applicationRepository.findAll(ApplicationSpecification.filterBy(filters), pageable);
+   return findAll(applicationRepository, Application.class, "application-summary", ApplicationSpecification.filterBy(filters), pageable);
   }
 
   public Page<Application> findApps(@NonNull String query, @NonNull List<SearchFilter> filters,
                                     @NonNull Pageable pageable) {
-    return applicationRepository.findAll(where(ApplicationSpecification.containsText(query))
+    return findAll(applicationRepository, Application.class, "application-summary", where(ApplicationSpecification.containsText(query))
             .and(ApplicationSpecification.filterBy(filters)), pageable);
   }
 
   public Page<Application> findUserApps(@NonNull String userId, @NonNull List<SearchFilter> filters,
                                         @NonNull Pageable pageable){
-    return applicationRepository.findAll(
+    return findAll(applicationRepository, Application.class, "application-summary",
             where(ApplicationSpecification.usedBy(fromString(userId)))
             .and(ApplicationSpecification.filterBy(filters)),
             pageable);
@@ -96,7 +149,7 @@ public class ApplicationService extends BaseService<Application, UUID> implement
 
   public Page<Application> findUserApps(@NonNull String userId, @NonNull String query,
                                         @NonNull List<SearchFilter> filters, @NonNull Pageable pageable){
-    return applicationRepository.findAll(
+    return findAll(applicationRepository, Application.class, "application-summary",
             where(ApplicationSpecification.usedBy(fromString(userId)))
                     .and(ApplicationSpecification.containsText(query))
                     .and(ApplicationSpecification.filterBy(filters)),
@@ -105,7 +158,7 @@ public class ApplicationService extends BaseService<Application, UUID> implement
 
   public Page<Application> findGroupApplications(@NonNull String groupId, @NonNull List<SearchFilter> filters,
                                                  @NonNull Pageable pageable){
-    return applicationRepository.findAll(
+    return findAll(applicationRepository, Application.class, "application-summary",
             where(ApplicationSpecification.inGroup(fromString(groupId)))
             .and(ApplicationSpecification.filterBy(filters)),
             pageable);
@@ -114,7 +167,7 @@ public class ApplicationService extends BaseService<Application, UUID> implement
   public Page<Application> findGroupApplications(@NonNull String groupId, @NonNull String query,
                                                  @NonNull List<SearchFilter> filters,
                                                  @NonNull Pageable pageable){
-    return applicationRepository.findAll(
+    return findAll(applicationRepository, Application.class, "application-summary",
             where(ApplicationSpecification.inGroup(fromString(groupId)))
                     .and(ApplicationSpecification.containsText(query))
                     .and(ApplicationSpecification.filterBy(filters)),
@@ -129,11 +182,32 @@ public class ApplicationService extends BaseService<Application, UUID> implement
     return applicationRepository.findOneByClientIdIgnoreCase(clientId);
   }
 
+  /*
+    Spring OAuth may look a client up several times per token request, then checks the secret it
+    is given against the stored hash. Failed lookups are not cached.
+   */
   @Override
   public ClientDetails loadClientByClientId(@NonNull String clientId) throws ClientRegistrationException {
+    val key = clientId.toLowerCase();
+    val cached = clients.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    val generation = clientsGeneration.get();
+    val clientDetails = loadClientDetails(clientId);
+    if (clients.size() >= clientCacheMaxSize) {
+      log.debug("Client details cache reached {} entries, clearing", clients.size());
+      clearClients();
+    } else if (clientsGeneration.get() == generation) {
+      clients.put(key, clientDetails);
+    }
+    return clientDetails;
+  }
+
+  private ClientDetails loadClientDetails(String clientId) {
     // find client using clientid
 
-    val application = getByClientId(clientId);
+    val application = applicationRepository.findCachedByClientIdIgnoreCase(clientId);
 
     if(application == null) {
       throw new ClientRegistrationException("Client ID not found.");
@@ -148,7 +222,7 @@ public class ApplicationService extends BaseService<Application, UUID> implement
     val approvedScopes = Arrays.asList(AppTokenClaims.SCOPES);
     val clientDetails = new BaseClientDetails();
     clientDetails.setClientId(clientId);
-    clientDetails.setClientSecret(passwordEncoder.encode(application.getClientSecret()));
+    clientDetails.setClientSecret(application.getClientSecret());
     clientDetails.setAuthorizedGrantTypes(Arrays.asList(AppTokenClaims.AUTHORIZED_GRANTS));
     clientDetails.setScope(approvedScopes);
     clientDetails.setRegisteredRedirectUri(application.getURISet());
@@ -159,4 +233,32 @@ public class ApplicationService extends BaseService<Application, UUID> implement
     return clientDetails;
   }
 
+  /*
+    Secrets are stored hashed. Applications sent back as read from the API carry the stored
+    hash, which is kept as is. Any other value is hashed, even one that looks like a hash, so
+    callers can't choose the stored hash.
+   */
+  private String encodeSecret(String secret, String storedSecret) {
+    if (secret == null || secret.equals(storedSecret)) {
+      return secret;
+    }
+    return passwordEncoder.encode(secret);
+  }
+
+  private void clearClients() {
+    clientsGeneration.incrementAndGet();
+    clients.clear();
+  }
+
+  private void onClusterChange(Event<?> event) {
+    try {
+      ChangeEvent change = (ChangeEvent) event.getData();
+      if (change.getType() == EntityType.APPLICATION) {
+        clearClients();
+      }
+    } catch (ClassCastException e) {
+      log.error("Cluster change event received incompatible data type.", e);
+    }
+  }
+
 }
@@ -1,16 +1,48 @@
 package org.overture.ego.service;
 
+import org.overture.ego.model.search.CountMode;
+import org.overture.ego.model.search.CountingPageable;
+import org.overture.ego.model.search.KeysetPageable;
+import org.overture.ego.repository.PageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 import javax.persistence.EntityNotFoundException;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 public abstract class BaseService<T, E> {
 
+  @Autowired
+  private PageRepository pageRepository;
+
   protected T getById(PagingAndSortingRepository<T, E> repository, E id){
     Optional<T> entity = repository.findById(id);
     // TODO @AlexLepsa - replace with return entity.orElseThrow...
     entity.orElseThrow(EntityNotFoundException::new);
     return entity.get();
   }
+
+  /*
+    Exactly counted offset pages come from the repository. Keyset pages (requested with a cursor)
+    and pages counted another way are read with the given entity graph instead
+   */
+  protected Page<T> findAll(JpaSpecificationExecutor<T> repository, Class<T> type, String entityGraph,
+                            Specification<T> specification, Pageable pageable) {
+    if (pageable instanceof KeysetPageable || (pageable instanceof CountingPageable
+        && ((CountingPageable) pageable).getCountMode() != CountMode.EXACT)) {
+      return pageRepository.findAll(repository, type, entityGraph, specification, (CountingPageable) pageable);
+    }
+    return repository.findAll(specification, pageable);
+  }
+
+  protected static List<UUID> fromStrings(List<String> ids) {
+    return ids.stream().map(UUID::fromString).collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.overture.ego.model.dto.ChangeEvent;
+import org.overture.ego.model.enums.EntityType;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Service;
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Announces entity changes to every Ego node sharing the database, over Postgres LISTEN/NOTIFY.
+ *
+ * A NOTIFY sent inside a transaction is only delivered once that transaction commits, and not
+ * at all if it rolls back, so changes can be published as they are made. Each node listens on
+ * a dedicated connection, opened outside of the connection pool, and posts the changes made by
+ * other nodes on the {@link EventBus} under {@link #CHANGED}, for local caches to drop what they
+ * hold about them.
+ */
+@Slf4j
+@Service
+public class ClusterEventService {
+
+  /*
+    Constants
+   */
+  public static final String CHANGED = ClusterEventService.class.getName() + ".CHANGED";
+  private static final String CHANNEL = "ego_changes";
+  private static final String NOTIFY = "SELECT count(pg_notify(?, payload)) FROM unnest(?) AS payload";
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  /*
+    Dependencies
+   */
+  @Value("${cluster.events.enabled:true}")
+  private boolean enabled = true;
+
+  // How long the listener waits for notifications before checking it should still run, and
+  // before reconnecting, in milliseconds
+  @Value("${cluster.events.poll-interval:500}")
+  private int pollInterval = 500;
+
+  @Autowired
+  private DataSourceProperties dataSourceProperties;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EventBus eventBus;
+
+  /*
+    Variables
+   */
+  private final String origin = UUID.randomUUID().toString();
+  private final AtomicLong sequence = new AtomicLong();
+  private volatile boolean running;
+  private Thread listener;
+
+  @PostConstruct
+  private void init() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    listener = new Thread(this::listen, "cluster-event-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    running = false;
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  public void publish(@NonNull EntityType type, @NonNull UUID id) {
+    publish(type, Collections.singleton(id));
+  }
+
+  public void publish(@NonNull EntityType type, @NonNull Collection<UUID> ids) {
+    if (!enabled || ids.isEmpty()) {
+      return;
+    }
+    val payloads = new ArrayList<String>(ids.size());
+    ids.forEach(id -> payloads.add(write(new ChangeEvent(type, id, sequence.incrementAndGet(), origin))));
+    notify(payloads);
+  }
+
+  public void publishAll(@NonNull EntityType type) {
+    if (enabled) {
+      notify(Collections.singletonList(write(new ChangeEvent(type, null, sequence.incrementAndGet(), origin))));
+    }
+  }
+
+  // Runs on the connection of the current transaction, if any
+  private void notify(Collection<String> payloads) {
+    jdbcTemplate.query(NOTIFY, ps -> {
+      ps.setString(1, CHANNEL);
+      ps.setArray(2, ps.getConnection().createArrayOf("text", payloads.toArray()));
+    }, rs -> {});
+  }
+
+  /*
+    The listening connection is held for the lifetime of the node, so it is not taken from the pool
+    where it would be one connection short and closed by its maxLifetime. Changes announced while
+    the connection was lost are unknown, so once listening again every entity is treated as changed.
+   */
+  private void listen() {
+    val listenerDataSource = new DriverManagerDataSource(dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+    listenerDataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+    boolean reconnected = false;
+    while (running) {
+      try (Connection connection = listenerDataSource.getConnection();
+           Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + CHANNEL);
+        val pgConnection = connection.unwrap(PGConnection.class);
+        log.info("Listening for cluster changes on {} as {}", CHANNEL, origin);
+        if (reconnected) {
+          for (val type : EntityType.values()) {
+            post(new ChangeEvent(type, null, 0, null));
+          }
+        }
+        while (running) {
+          // Blocks until notifications arrive or the poll interval passes
+          val notifications = pgConnection.getNotifications(pollInterval);
+          if (notifications != null) {
+            for (val notification : notifications) {
+              receive(notification.getParameter());
+            }
+          }
+        }
+      } catch (Exception e) {
+        if (!running) {
+          return;
+        }
+        log.error("Lost the cluster change listener connection, reconnecting: {}", e);
+        reconnected = true;
+        if (!pause()) {
+          return;
+        }
+      }
+    }
+  }
+
+  private void receive(String payload) {
+    try {
+      val event = MAPPER.readValue(payload, ChangeEvent.class);
+      // Changes made by this node were already applied when they were committed
+      if (!origin.equals(event.getOrigin())) {
+        post(event);
+      }
+    } catch (Exception e) {
+      log.error("Ignoring malformed cluster change {}: {}", payload, e);
+    }
+  }
+
+  private void post(ChangeEvent event) {
+    log.debug("Cluster change received: {}", event);
+    eventBus.notify(CHANGED, Event.wrap(event));
+  }
+
+  private boolean pause() {
+    try {
+      Thread.sleep(pollInterval);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  @SneakyThrows
+  private static String write(ChangeEvent event) {
+    return MAPPER.writeValueAsString(event);
+  }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.service;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.overture.ego.model.dto.ChangeEvent;
+import org.overture.ego.model.enums.PolicyMask;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+import reactor.bus.selector.Selectors;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Collections.singleton;
+import static org.overture.ego.model.enums.EntityType.GROUP;
+import static org.overture.ego.model.enums.EntityType.POLICY;
+import static org.overture.ego.model.enums.EntityType.USER;
+import static org.overture.ego.utils.TransactionUtils.afterCommit;
+
+/**
+ * Effective user permissions and permissions of groups, served from the {@link AclIndex}.
+ * Changes to user permissions, group permissions, group membership or policies are applied
+ * to the index once the transaction making them has been committed, and announced to the other
+ * nodes of the cluster, which drop the users and groups affected from their own index.
+ */
+@Slf4j
+@Service
+public class EffectivePermissionService {
+
+  /*
+    Dependencies
+   */
+  @Autowired
+  private AclIndex aclIndex;
+
+  @Autowired
+  private ClusterEventService clusterEventService;
+
+  @Autowired
+  private EventBus eventBus;
+
+  @PostConstruct
+  private void init() {
+    eventBus.on(Selectors.$(ClusterEventService.CHANGED), this::onClusterChange);
+  }
+
+  public List<String> getPermissions(@NonNull UUID userId) {
+    return getUserPermissions(userId).getPermissionStrings();
+  }
+
+  EffectivePermissions getUserPermissions(@NonNull UUID userId) {
+    return aclIndex.getUserPermissions(userId);
+  }
+
+  EffectivePermissions getGroupPermissions(@NonNull UUID groupId) {
+    return aclIndex.getGroupPermissions(groupId);
+  }
+
+  public void granted(boolean groups, @NonNull Collection<UUID> subjects, @NonNull UUID policyId,
+                      @NonNull String policyName, @NonNull PolicyMask mask) {
+    afterCommit(() -> aclIndex.granted(groups, subjects, policyId, policyName, mask));
+    clusterEventService.publish(groups ? GROUP : USER, subjects);
+  }
+
+  public void revoked(boolean groups, @NonNull Collection<UUID> subjects, @NonNull UUID policyId, PolicyMask mask) {
+    afterCommit(() -> aclIndex.revoked(groups, subjects, policyId, mask));
+    clusterEventService.publish(groups ? GROUP : USER, subjects);
+  }
+
+  public void membersAdded(@NonNull UUID groupId, @NonNull Collection<UUID> userIds) {
+    afterCommit(() -> aclIndex.membersAdded(groupId, userIds));
+    clusterEventService.publish(USER, userIds);
+  }
+
+  public void membersRemoved(@NonNull UUID groupId, @NonNull Collection<UUID> userIds) {
+    afterCommit(() -> aclIndex.membersRemoved(groupId, userIds));
+    clusterEventService.publish(USER, userIds);
+  }
+
+  public void invalidateUser(@NonNull UUID userId) {
+    invalidateUsers(singleton(userId));
+  }
+
+  public void invalidateUsers(@NonNull Collection<UUID> userIds) {
+    afterCommit(() -> aclIndex.evictUsers(userIds));
+    clusterEventService.publish(USER, userIds);
+  }
+
+  /*
+    Members keep referring to the group, so only its own entry needs to go
+   */
+  public void invalidateGroup(@NonNull UUID groupId) {
+    invalidateGroups(singleton(groupId));
+  }
+
+  public void invalidateGroups(@NonNull Collection<UUID> groupIds) {
+    afterCommit(() -> aclIndex.evictGroups(groupIds));
+    clusterEventService.publish(GROUP, groupIds);
+  }
+
+  public void invalidateAll() {
+    afterCommit(aclIndex::clear);
+    clusterEventService.publishAll(POLICY);
+  }
+
+  /*
+    Changes made on other nodes, already committed
+   */
+  private void onClusterChange(Event<?> event) {
+    try {
+      ChangeEvent change = (ChangeEvent) event.getData();
+      if (change.getId() == null) {
+        aclIndex.clear();
+      } else if (change.getType() == USER) {
+        aclIndex.evictUsers(singleton(change.getId()));
+      } else if (change.getType() == GROUP) {
+        aclIndex.evictGroups(singleton(change.getId()));
+      } else if (change.getType() == POLICY) {
+        aclIndex.clear();
+      }
+    } catch (ClassCastException e) {
+      log.error("Cluster change event received incompatible data type.", e);
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import lombok.val;
+import org.overture.ego.model.enums.PolicyMask;
+import org.overture.ego.service.AclIndex.Dictionary;
+import org.overture.ego.service.AclIndex.Masks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Effective mask of a user (or group) on each policy it has a permission on, by policy id and
+ * by policy name, along with the matching JWT permission strings. A view over the bitsets
+ * of the {@link AclIndex}, which it owns: they are never modified after construction.
+ */
+final class EffectivePermissions {
+
+  static final EffectivePermissions NONE = new EffectivePermissions(new Dictionary(), new Masks());
+
+  private final Dictionary policies;
+  private final Masks masks;
+  private List<String> permissionStrings;
+
+  EffectivePermissions(Dictionary policies, Masks masks) {
+    this.policies = policies;
+    this.masks = masks;
+  }
+
+  PolicyMask get(UUID policyId) {
+    return get(policies.find(policyId));
+  }
+
+  PolicyMask get(String policyName) {
+    return get(policies.find(policyName));
+  }
+
+  /*
+    DENY wins over any other mask, then WRITE over READ
+   */
+  private PolicyMask get(Integer policy) {
+    if (policy == null) {
+      return null;
+    } else if (masks.deny.get(policy)) {
+      return PolicyMask.DENY;
+    } else if (masks.write.get(policy)) {
+      return PolicyMask.WRITE;
+    } else if (masks.read.get(policy)) {
+      return PolicyMask.READ;
+    }
+    return null;
+  }
+
+  List<String> getPermissionStrings() {
+    if (permissionStrings == null) {
+      val all = all();
+      val strings = new ArrayList<String>(all.cardinality());
+      all.stream().forEach(policy -> strings.add(policies.name(policy) + "." + get(policy)));
+      permissionStrings = Collections.unmodifiableList(strings);
+    }
+    return permissionStrings;
+  }
+
+  boolean isEmpty() {
+    return all().isEmpty();
+  }
+
+  private BitSet all() {
+    val all = (BitSet) masks.read.clone();
+    all.or(masks.write);
+    all.or(masks.deny);
+    return all;
+  }
+
+  /**
+   * Whether an effective mask allows an action: DENY, the strongest mask, overrides any other
+   * permission and WRITE includes READ. DENY itself is never an allowed action.
+   */
+  static boolean allows(PolicyMask effective, PolicyMask requested) {
+    return effective != null && effective != PolicyMask.DENY && requested != PolicyMask.DENY
+        && effective.compareTo(requested) >= 0;
+  }
+
+}
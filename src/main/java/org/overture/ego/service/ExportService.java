@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.overture.ego.model.exceptions.UnknownExportException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Streams whole tables as newline delimited JSON, one row per line.
+ * Rows are read through a server side cursor (a fetch size inside a read only transaction)
+ * and written straight from the ResultSet, without building entities, so an export uses
+ * the same amount of memory whatever the size of the table.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+  public enum Entity {
+    USERS("SELECT id, name, email, role, status, firstname AS \"firstName\", lastname AS \"lastName\", "
+        + "createdat AS \"createdAt\", lastlogin AS \"lastLogin\", preferredlanguage AS \"preferredLanguage\" "
+        + "FROM egouser"),
+    GROUPS("SELECT id, name, description, status FROM egogroup"),
+    // client secrets are never exported
+    APPLICATIONS("SELECT id, name, clientid AS \"clientId\", redirecturi AS \"redirectUri\", description, status "
+        + "FROM egoapplication"),
+    PERMISSIONS("SELECT p.id, 'USER' AS \"ownerType\", p.sid AS \"ownerId\", p.entity AS \"policyId\", "
+        + "e.name AS \"policyName\", p.mask AS \"accessLevel\" "
+        + "FROM acluserpermission p JOIN aclentity e ON e.id = p.entity "
+        + "UNION ALL "
+        + "SELECT p.id, 'GROUP', p.sid, p.entity, e.name, p.mask "
+        + "FROM aclgrouppermission p JOIN aclentity e ON e.id = p.entity");
+
+    private final String sql;
+
+    Entity(String sql) {
+      this.sql = sql;
+    }
+
+    public static Entity parse(@NonNull String name) {
+      for (val entity : values()) {
+        if (entity.name().equalsIgnoreCase(name)) {
+          return entity;
+        }
+      }
+      throw new UnknownExportException();
+    }
+  }
+
+  /*
+    Constants
+   */
+  private static final JsonFactory JSON_FACTORY = new JsonFactory()
+      .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+      .setRootValueSeparator(null);
+
+  /*
+    Dependencies
+   */
+  @Value("${export.fetch-size:1000}")
+  private int fetchSize = 1000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  /**
+   * Writes every row of the entity to the stream and returns the number of rows written.
+   * The stream is flushed but left open.
+   */
+  public long export(@NonNull Entity entity, @NonNull OutputStream out) throws IOException {
+    // the postgres driver only uses a cursor when autocommit is off and a fetch size is set
+    val transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      val writer = new RowWriter(generator);
+      try {
+        transaction.execute(status -> {
+          jdbcTemplate.query(connection -> {
+            val statement = connection.prepareStatement(entity.sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+          }, writer);
+          return null;
+        });
+      } catch (UncheckedIOException e) {
+        // the client went away, the transaction has been rolled back and the cursor closed
+        throw e.getCause();
+      }
+      generator.flush();
+      log.info("Exported {} {}", writer.rows, entity.name().toLowerCase());
+      return writer.rows;
+    }
+  }
+
+  /*
+    Writes a row as a JSON object keyed by column label. Labels are read once from the
+    metadata of the first row. Numbers and booleans are kept, every other value (uuids,
+    timestamps, enums) is written as its string representation.
+   */
+  private static class RowWriter implements RowCallbackHandler {
+    private final JsonGenerator generator;
+    private SerializableString[] labels;
+    private long rows;
+
+    RowWriter(JsonGenerator generator) {
+      this.generator = generator;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      if (labels == null) {
+        val metaData = rs.getMetaData();
+        labels = new SerializableString[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+          labels[i] = new SerializedString(metaData.getColumnLabel(i + 1));
+        }
+      }
+      try {
+        generator.writeStartObject();
+        for (int i = 0; i < labels.length; i++) {
+          generator.writeFieldName(labels[i]);
+          writeValue(rs.getObject(i + 1));
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        rows++;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private void writeValue(Object value) throws IOException {
+      if (value == null) {
+        generator.writeNull();
+      } else if (value instanceof Boolean) {
+        generator.writeBoolean((Boolean) value);
+      } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+        generator.writeNumber(((Number) value).longValue());
+      } else if (value instanceof Number) {
+        generator.writeNumber(value.toString());
+      } else {
+        generator.writeString(value.toString());
+      }
+    }
+  }
+
+}
@@ -25,25 +25,32 @@ import org.overture.ego.model.enums.PolicyMask;
 import org.overture.ego.model.params.Scope;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.repository.GroupRepository;
+import org.overture.ego.repository.MembershipRepository;
 import org.overture.ego.repository.queryspecification.GroupSpecification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.UUID;
 
 import static java.util.UUID.fromString;
+import static org.overture.ego.repository.MembershipRepository.Membership.GROUP_APPLICATIONS;
+import static org.overture.ego.repository.MembershipRepository.Membership.GROUP_USERS;
 import static org.springframework.data.jpa.domain.Specifications.where;
 
 @Service
+@Transactional
 @AllArgsConstructor(onConstructor = @__({@Autowired}))
 public class GroupService extends BaseService<Group, UUID> {
   private final GroupRepository groupRepository;
-  private final ApplicationService applicationService;
+  private final MembershipRepository membershipRepository;
   private final PolicyService policyService;
+  private final EffectivePermissionService effectivePermissionService;
 
   public Group create(@NonNull Group groupInfo) {
     return groupRepository.save(groupInfo);
@@ -51,11 +58,16 @@ public class GroupService extends BaseService<Group, UUID> {
 
   public Group addAppsToGroup(@NonNull String grpId, @NonNull List<String> appIDs){
     val group = getById(groupRepository, fromString(grpId));
-    appIDs.forEach(appId -> {
-      val app = applicationService.get(appId);
-      group.addApplication(app);
-    });
-    return groupRepository.save(group);
+    membershipRepository.add(GROUP_APPLICATIONS, group.getId(), fromStrings(appIDs));
+    return membershipRepository.refresh(group);
+  }
+
+  public Group addUsersToGroup(@NonNull String grpId, @NonNull List<String> userIDs){
+    val group = getById(groupRepository, fromString(grpId));
+    val userIds = fromStrings(userIDs);
+    membershipRepository.add(GROUP_USERS, group.getId(), userIds);
+    effectivePermissionService.membersAdded(group.getId(), userIds);
+    return membershipRepository.refresh(group);
   }
 
   public Group addGroupPermissions(@NonNull String groupId, @NonNull List<Scope> permissions) {
@@ -63,6 +75,7 @@ public class GroupService extends BaseService<Group, UUID> {
     permissions.forEach(permission -> {
       group.addNewPermission(policyService.get(permission.getAclEntityId()), PolicyMask.fromValue(permission.getMask()));
     });
+    effectivePermissionService.invalidateGroup(group.getId());
     return groupRepository.save(group);
   }
 
@@ -77,29 +90,34 @@ public class GroupService extends BaseService<Group, UUID> {
   public Group update(@NonNull Group updatedGroupInfo) {
     Group group = getById(groupRepository,updatedGroupInfo.getId());
     group.update(updatedGroupInfo);
+    // Membership may be replaced wholesale, so both old and new members are affected
+    effectivePermissionService.invalidateAll();
     return groupRepository.save(group);
   }
 
   public void delete(@NonNull String groupId) {
+    effectivePermissionService.invalidateGroup(fromString(groupId));
      groupRepository.deleteById(fromString(groupId));
   }
 
   public Page<Group> listGroups(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return groupRepository.findAll(GroupSpecification.filterBy(filters), pageable);
+    return findAll(groupRepository, Group.class, "group-summary", GroupSpecification.filterBy(filters), pageable);
   }
 
   public Page<GroupPermission> getGroupPermissions(@NonNull String groupId, @NonNull Pageable pageable) {
-    val groupPermissions = getById(groupRepository,fromString(groupId)).getGroupPermissions();
+    val groupPermissions = groupRepository.findWithPermissionsById(fromString(groupId))
+        .orElseThrow(EntityNotFoundException::new)
+        .getGroupPermissions();
     return new PageImpl<>(groupPermissions, pageable, groupPermissions.size());
   }
 
   public Page<Group> findGroups(@NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return groupRepository.findAll(where(GroupSpecification.containsText(query))
+    return findAll(groupRepository, Group.class, "group-summary", where(GroupSpecification.containsText(query))
             .and(GroupSpecification.filterBy(filters)), pageable);
   }
 
   public Page<Group> findUserGroups(@NonNull String userId, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable){
-    return groupRepository.findAll(
+    return findAll(groupRepository, Group.class, "group-summary",
             where(GroupSpecification.containsUser(fromString(userId)))
             .and(GroupSpecification.filterBy(filters)),
             pageable);
@@ -107,7 +125,7 @@ public class GroupService extends BaseService<Group, UUID> {
 
   public Page<Group> findUserGroups(@NonNull String userId, @NonNull String query, @NonNull List<SearchFilter> filters,
                                     @NonNull Pageable pageable){
-    return groupRepository.findAll(
+    return findAll(groupRepository, Group.class, "group-summary",
             where(GroupSpecification.containsUser(fromString(userId)))
                     .and(GroupSpecification.containsText(query))
                     .and(GroupSpecification.filterBy(filters)),
@@ -116,7 +134,7 @@ public class GroupService extends BaseService<Group, UUID> {
 
   public Page<Group> findApplicationGroups(@NonNull String appId, @NonNull List<SearchFilter> filters,
                                            @NonNull Pageable pageable){
-    return groupRepository.findAll(
+    return findAll(groupRepository, Group.class, "group-summary",
             where(GroupSpecification.containsApplication(fromString(appId)))
             .and(GroupSpecification.filterBy(filters)),
             pageable);
@@ -124,7 +142,7 @@ public class GroupService extends BaseService<Group, UUID> {
 
   public Page<Group> findApplicationGroups(@NonNull String appId, @NonNull String query,
                                            @NonNull List<SearchFilter> filters, @NonNull Pageable pageable){
-    return groupRepository.findAll(
+    return findAll(groupRepository, Group.class, "group-summary",
             where(GroupSpecification.containsApplication(fromString(appId)))
                     .and(GroupSpecification.containsText(query))
             .and(GroupSpecification.filterBy(filters)),
@@ -133,11 +151,16 @@ public class GroupService extends BaseService<Group, UUID> {
 
   public void deleteAppsFromGroup(@NonNull String grpId, @NonNull List<String> appIDs) {
     val group = getById(groupRepository,fromString(grpId));
-    appIDs.forEach(appId -> {
-      // TODO if app id not valid (does not exist) we need to throw EntityNotFoundException
-      group.removeApplication(fromString(appId));
-    });
-    groupRepository.save(group);
+    membershipRepository.remove(GROUP_APPLICATIONS, group.getId(), fromStrings(appIDs));
+    membershipRepository.refresh(group);
+  }
+
+  public void deleteUsersFromGroup(@NonNull String grpId, @NonNull List<String> userIDs) {
+    val group = getById(groupRepository,fromString(grpId));
+    val userIds = fromStrings(userIDs);
+    membershipRepository.remove(GROUP_USERS, group.getId(), userIds);
+    effectivePermissionService.membersRemoved(group.getId(), userIds);
+    membershipRepository.refresh(group);
   }
 
   public void deleteGroupPermissions(@NonNull String userId, @NonNull List<String> permissionsIds) {
@@ -145,6 +168,7 @@ public class GroupService extends BaseService<Group, UUID> {
     permissionsIds.forEach(permissionsId -> {
       group.removePermission(fromString(permissionsId));
     });
+    effectivePermissionService.invalidateGroup(group.getId());
     groupRepository.save(group);
   }
 }
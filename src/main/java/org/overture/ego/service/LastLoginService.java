@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.service;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records user logins in memory and writes them to the database periodically
+ * as a single JDBC batch. Repeated logins by the same user between two flushes
+ * are coalesced into one update carrying the latest value.
+ */
+@Slf4j
+@Service
+public class LastLoginService {
+
+  /*
+    Constants
+   */
+  private static final String UPDATE_LAST_LOGIN = "UPDATE egouser SET lastlogin=? WHERE id=?";
+
+  /*
+    Dependencies
+   */
+  @Value("${lastLogin.flush-interval:1000}")
+  private long flushInterval;
+
+  @Value("${lastLogin.max-pending:10000}")
+  private int maxPending;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  /*
+    Variables
+   */
+  private final ConcurrentMap<UUID, String> pending = new ConcurrentHashMap<>();
+  private final AtomicLong recorded = new AtomicLong();
+  private final AtomicLong merged = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  private void init() {
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      val thread = new Thread(r, "last-login-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::flushSafely, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  private void shutdown() {
+    scheduler.shutdown();
+    flushSafely();
+  }
+
+  public void recordLogin(@NonNull UUID userId, @NonNull String lastLogin) {
+    recorded.incrementAndGet();
+    if (pending.size() >= maxPending && !pending.containsKey(userId)) {
+      dropped.incrementAndGet();
+      log.warn("Last login queue is full ({} users pending), dropping update for user {}", pending.size(), userId);
+      return;
+    }
+    if (pending.put(userId, lastLogin) != null) {
+      merged.incrementAndGet();
+    }
+  }
+
+  public int flush() {
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    val batch = new ArrayList<Object[]>(pending.size());
+    for (val userId : new ArrayList<UUID>(pending.keySet())) {
+      val lastLogin = pending.remove(userId);
+      if (lastLogin != null) {
+        batch.add(new Object[]{lastLogin, userId});
+      }
+    }
+    writeBatch(batch);
+    return batch.size();
+  }
+
+  public long getRecordedCount() {
+    return recorded.get();
+  }
+
+  public long getMergedCount() {
+    return merged.get();
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  public long getWrittenCount() {
+    return written.get();
+  }
+
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  private void writeBatch(List<Object[]> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(UPDATE_LAST_LOGIN, batch);
+    written.addAndGet(batch.size());
+    log.debug("Flushed {} last login updates (recorded: {}, merged: {}, dropped: {})",
+        batch.size(), recorded.get(), merged.get(), dropped.get());
+  }
+
+  private void flushSafely() {
+    try {
+      flush();
+    } catch (Exception ex) {
+      log.error("Error writing last login updates: {}", ex);
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import lombok.NonNull;
+import lombok.val;
+import org.overture.ego.model.dto.PermissionCheckResult;
+import org.overture.ego.model.enums.PolicyMask;
+import org.overture.ego.model.exceptions.InvalidPermissionCheckException;
+import org.overture.ego.model.params.PermissionCheck;
+import org.overture.ego.model.params.PolicyReadQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Answers "can this user or group do this on that policy" from the effective permission index,
+ * without loading entities or building tokens. Policies may be given by id or by name.
+ */
+@Service
+public class PermissionCheckService {
+
+  /*
+    Constants
+   */
+  public static final String USER = "user";
+  public static final String GROUP = "group";
+  private static final Pattern UUID_PATTERN =
+      Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
+
+  /*
+    Dependencies
+   */
+  @Autowired
+  private EffectivePermissionService effectivePermissionService;
+
+  public List<PermissionCheckResult> check(@NonNull List<PermissionCheck> checks) {
+    val results = new ArrayList<PermissionCheckResult>(checks.size());
+    for (val check : checks) {
+      val type = check.getSubjectType() == null ? USER : check.getSubjectType().toLowerCase();
+      val subject = parseId(check.getSubject());
+      val mask = parseMask(check.getMask());
+      if (check.getPolicy() == null) {
+        throw new InvalidPermissionCheckException();
+      }
+      final EffectivePermissions permissions;
+      if (USER.equals(type)) {
+        permissions = effectivePermissionService.getUserPermissions(subject);
+      } else if (GROUP.equals(type)) {
+        permissions = effectivePermissionService.getGroupPermissions(subject);
+      } else {
+        throw new InvalidPermissionCheckException();
+      }
+      val effective = lookup(permissions, check.getPolicy());
+      results.add(new PermissionCheckResult(check.getSubject(), type, check.getPolicy(), mask.toString(),
+          effective == null ? null : effective.toString(), EffectivePermissions.allows(effective, mask)));
+    }
+    return results;
+  }
+
+  public List<String> readablePolicies(@NonNull PolicyReadQuery query) {
+    val permissions = effectivePermissionService.getUserPermissions(parseId(query.getUser()));
+    if (query.getPolicies() == null || permissions.isEmpty()) {
+      return new ArrayList<>();
+    }
+    return query.getPolicies().stream()
+        .filter(policy -> EffectivePermissions.allows(lookup(permissions, policy), PolicyMask.READ))
+        .collect(Collectors.toList());
+  }
+
+  private static PolicyMask lookup(EffectivePermissions permissions, String policy) {
+    if (policy == null) {
+      return null;
+    }
+    return UUID_PATTERN.matcher(policy).matches() ? permissions.get(UUID.fromString(policy)) : permissions.get(policy);
+  }
+
+  private static UUID parseId(String id) {
+    if (id == null || !UUID_PATTERN.matcher(id).matches()) {
+      throw new InvalidPermissionCheckException();
+    }
+    return UUID.fromString(id);
+  }
+
+  private static PolicyMask parseMask(String mask) {
+    try {
+      return PolicyMask.fromValue(mask);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPermissionCheckException();
+    }
+  }
+
+}
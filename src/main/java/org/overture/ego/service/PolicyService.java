@@ -2,9 +2,16 @@ package org.overture.ego.service;
 
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.overture.ego.model.dto.PermissionGrantResult;
 import org.overture.ego.model.entity.Policy;
+import org.overture.ego.model.enums.EntityType;
+import org.overture.ego.model.enums.PolicyMask;
+import org.overture.ego.model.exceptions.InvalidPermissionGrantException;
+import org.overture.ego.model.params.PermissionGrant;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.repository.AclEntityRepository;
+import org.overture.ego.repository.PermissionGrantRepository;
 import org.overture.ego.repository.queryspecification.AclEntitySpecification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -12,10 +19,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static java.util.UUID.fromString;
+import static org.overture.ego.repository.PermissionGrantRepository.Subject.GROUP;
+import static org.overture.ego.repository.PermissionGrantRepository.Subject.USER;
 
 @Slf4j
 @Service
@@ -28,9 +38,21 @@ public class PolicyService extends BaseService<Policy, UUID> {
   @Autowired
   private AclEntityRepository aclEntityRepository;
 
+  @Autowired
+  private PermissionGrantRepository permissionGrantRepository;
+
+  @Autowired
+  private EffectivePermissionService effectivePermissionService;
+
+  @Autowired
+  private ClusterEventService clusterEventService;
+
   // Create
   public Policy create(@NonNull Policy policy) {
-    return aclEntityRepository.save(policy);
+    val created = aclEntityRepository.save(policy);
+    // Other nodes may have cached that the name did not exist
+    clusterEventService.publish(EntityType.POLICY, created.getId());
+    return created;
   }
 
 
@@ -44,21 +66,69 @@ public class PolicyService extends BaseService<Policy, UUID> {
   }
 
   public Page<Policy> listAclEntities(@NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return aclEntityRepository.findAll(AclEntitySpecification.filterBy(filters), pageable);
+    return findAll(aclEntityRepository, Policy.class, null, AclEntitySpecification.filterBy(filters), pageable);
+  }
+
+
+  // Grant
+  public PermissionGrantResult grant(@NonNull String aclEntityId, @NonNull PermissionGrant grant) {
+    val policy = get(aclEntityId);
+    val mask = parseMask(grant.getMask());
+    val userIds = parseIds(orEmpty(grant.getUsers()));
+    val groupIds = parseIds(orEmpty(grant.getGroups()));
+    val users = permissionGrantRepository.grant(USER, policy.getId(), mask, userIds);
+    val groups = permissionGrantRepository.grant(GROUP, policy.getId(), mask, groupIds);
+    effectivePermissionService.granted(false, userIds, policy.getId(), policy.getName(), mask);
+    effectivePermissionService.granted(true, groupIds, policy.getId(), policy.getName(), mask);
+    return new PermissionGrantResult(policy.getId(), mask.toString(), users, groups);
   }
 
+  public PermissionGrantResult revoke(@NonNull String aclEntityId, @NonNull PermissionGrant grant) {
+    val policy = get(aclEntityId);
+    val mask = grant.getMask() == null ? null : parseMask(grant.getMask());
+    val userIds = parseIds(orEmpty(grant.getUsers()));
+    val groupIds = parseIds(orEmpty(grant.getGroups()));
+    val users = permissionGrantRepository.revoke(USER, policy.getId(), mask, userIds);
+    val groups = permissionGrantRepository.revoke(GROUP, policy.getId(), mask, groupIds);
+    effectivePermissionService.revoked(false, userIds, policy.getId(), mask);
+    effectivePermissionService.revoked(true, groupIds, policy.getId(), mask);
+    return new PermissionGrantResult(policy.getId(), mask == null ? null : mask.toString(), users, groups);
+  }
 
   // Update
   public Policy update(@NonNull Policy updatedPolicy) {
     Policy policy = getById(aclEntityRepository, updatedPolicy.getId());
     policy.update(updatedPolicy);
     aclEntityRepository.save(policy);
+    // Policy names are part of every effective permission granted on it
+    effectivePermissionService.invalidateAll();
     return updatedPolicy;
   }
 
   // Delete
   public void delete(@NonNull String aclEntityId) {
     aclEntityRepository.deleteById(fromString(aclEntityId));
+    effectivePermissionService.invalidateAll();
+  }
+
+  private static List<String> orEmpty(List<String> ids) {
+    return ids == null ? Collections.emptyList() : ids;
+  }
+
+  private static PolicyMask parseMask(String mask) {
+    try {
+      return PolicyMask.fromValue(mask);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPermissionGrantException();
+    }
+  }
+
+  private static List<UUID> parseIds(List<String> ids) {
+    try {
+      return fromStrings(ids);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPermissionGrantException();
+    }
   }
 
 }
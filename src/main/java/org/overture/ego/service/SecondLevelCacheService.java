@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.overture.ego.model.dto.ChangeEvent;
+import org.overture.ego.model.entity.Application;
+import org.overture.ego.model.entity.Policy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+import reactor.bus.selector.Selectors;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.util.UUID;
+
+/**
+ * Keeps the Hibernate second-level and query caches of applications and policies in line with
+ * changes made on other nodes. Hibernate only sees the writes of its own node: the entities
+ * changed elsewhere are evicted, along with every cached lookup of their type.
+ */
+@Slf4j
+@Service
+public class SecondLevelCacheService {
+
+  /*
+    Constants
+   */
+  private static final String APPLICATION_QUERIES = "application-queries";
+  private static final String POLICY_QUERIES = "policy-queries";
+
+  /*
+    Dependencies
+   */
+  @PersistenceUnit
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private EventBus eventBus;
+
+  @PostConstruct
+  private void init() {
+    eventBus.on(Selectors.$(ClusterEventService.CHANGED), this::onClusterChange);
+  }
+
+  private void onClusterChange(Event<?> event) {
+    try {
+      ChangeEvent change = (ChangeEvent) event.getData();
+      switch (change.getType()) {
+        case APPLICATION:
+          evict(Application.class, change.getId(), APPLICATION_QUERIES);
+          break;
+        case POLICY:
+          evict(Policy.class, change.getId(), POLICY_QUERIES);
+          break;
+        default:
+          break;
+      }
+    } catch (ClassCastException e) {
+      log.error("Cluster change event received incompatible data type.", e);
+    }
+  }
+
+  private void evict(Class<?> entity, UUID id, String queries) {
+    val cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    if (id == null) {
+      cache.evictEntityRegion(entity);
+    } else {
+      cache.evictEntity(entity, id);
+    }
+    cache.evictQueryRegion(queries);
+  }
+
+}
@@ -0,0 +1,471 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.overture.ego.model.dto.UserImportResult;
+import org.overture.ego.model.dto.UserImportRow;
+import org.overture.ego.model.enums.UserRole;
+import org.overture.ego.model.enums.UserStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.core.NestedExceptionUtils.getMostSpecificCause;
+
+/**
+ * Imports users in bulk from NDJSON or CSV. Rows are validated and then upserted (by email, ignoring case)
+ * in chunks, each chunk with one batched statement per table in its own transaction.
+ * Existing users only get the fields a row provides, defaults apply to new users. A row is
+ * rejected on its own when its email is already the name of another user, or matches the emails
+ * of several users that only differ in case.
+ * Memberships listed for a user are added to the ones the user already has.
+ * The result of every row is handed back chunk by chunk, in input order.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+
+  public enum Format { NDJSON, CSV }
+
+  /*
+    Constants
+   */
+  private static final String UPSERT_USER =
+      "INSERT INTO egouser (id, name, email, role, firstname, lastname, createdat, status, preferredlanguage) "
+          + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+          + "ON CONFLICT (email) DO UPDATE SET role = COALESCE(?, egouser.role), "
+          + "firstname = COALESCE(?, egouser.firstname), lastname = COALESCE(?, egouser.lastname), "
+          + "status = COALESCE(?, egouser.status), preferredlanguage = COALESCE(?, egouser.preferredlanguage)";
+  private static final String SELECT_USERS =
+      "SELECT id, LOWER(email), email FROM egouser WHERE LOWER(email) IN (:emails)";
+  // New users are named after their email, which must not clash with the name of another user
+  private static final String SELECT_NAMES = "SELECT id, LOWER(name) FROM egouser WHERE LOWER(name) IN (:names)";
+  private static final String SELECT_GROUPS = "SELECT id, LOWER(name) FROM egogroup WHERE LOWER(name) IN (:names)";
+  private static final String SELECT_APPLICATIONS =
+      "SELECT id, LOWER(clientid) FROM egoapplication WHERE LOWER(clientid) IN (:clientIds)";
+  private static final String INSERT_USER_GROUP =
+      "INSERT INTO usergroup (userid, grpid) VALUES (?, ?) ON CONFLICT DO NOTHING";
+  private static final String INSERT_USER_APPLICATION =
+      "INSERT INTO userapplication (userid, appid) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+  // Values allowed by the egouser check constraint
+  private static final List<String> LANGUAGES = Arrays.asList("English", "French", "Spanish");
+  private static final String CSV_LIST_SEPARATOR = "\\|";
+  private static final int MAX_LENGTH = 255;
+  private static final ObjectReader ROW_READER = new ObjectMapper().readerFor(UserImportRow.class);
+
+  /*
+    Dependencies
+   */
+  @Value("${users.import.batch-size:1000}")
+  private int batchSize = 1000;
+
+  @Value("${default.user.role}")
+  private String defaultUserRole;
+
+  @Value("${default.user.status}")
+  private String defaultUserStatus;
+
+  @Autowired
+  private NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private EffectivePermissionService effectivePermissionService;
+
+  @Autowired
+  private SimpleDateFormat formatter;
+
+  public void importUsers(@NonNull BufferedReader reader, @NonNull Format format,
+                          @NonNull Consumer<List<UserImportResult>> results) throws IOException {
+    val rows = format == Format.CSV ? new CsvRows(reader) : new NdjsonRows(reader);
+    val chunk = new ArrayList<ParsedRow>();
+    ParsedRow row;
+    while ((row = rows.next()) != null) {
+      chunk.add(row);
+      if (chunk.size() >= batchSize) {
+        results.accept(importChunk(chunk));
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      results.accept(importChunk(chunk));
+    }
+  }
+
+  private List<UserImportResult> importChunk(List<ParsedRow> chunk) {
+    val results = new UserImportResult[chunk.size()];
+    val valid = new ArrayList<Integer>();
+    for (int i = 0; i < chunk.size(); i++) {
+      val row = chunk.get(i);
+      val error = row.getError() != null ? row.getError() : validate(row.getRow());
+      if (error != null) {
+        val email = row.getRow() == null ? null : row.getRow().getEmail();
+        results[i] = UserImportResult.failed(row.getLine(), email, error);
+      } else {
+        valid.add(i);
+      }
+    }
+
+    val groups = lookup(SELECT_GROUPS, "names", valid.stream()
+        .flatMap(i -> chunk.get(i).getRow().getGroups().stream()).collect(Collectors.toSet()));
+    val applications = lookup(SELECT_APPLICATIONS, "clientIds", valid.stream()
+        .flatMap(i -> chunk.get(i).getRow().getApplications().stream()).collect(Collectors.toSet()));
+    valid.removeIf(i -> {
+      val row = chunk.get(i);
+      String error = findUnknown("group", row.getRow().getGroups(), groups);
+      if (error == null) {
+        error = findUnknown("application", row.getRow().getApplications(), applications);
+      }
+      if (error != null) {
+        results[i] = UserImportResult.failed(row.getLine(), row.getRow().getEmail(), error);
+      }
+      return error != null;
+    });
+
+    val ambiguous = new HashSet<String>();
+    val existing = selectUsers(valid.stream()
+        .map(i -> chunk.get(i).getRow().getEmail()).collect(Collectors.toSet()), ambiguous);
+    val names = lookup(SELECT_NAMES, "names", valid.stream()
+        .map(i -> chunk.get(i).getRow().getEmail()).filter(e -> !existing.containsKey(e)).collect(Collectors.toSet()));
+    valid.removeIf(i -> {
+      val row = chunk.get(i);
+      String error = null;
+      if (ambiguous.contains(row.getRow().getEmail())) {
+        error = "Several users have this email in different case";
+      } else if (names.containsKey(row.getRow().getEmail())) {
+        error = "Another user is already named after this email";
+      }
+      if (error != null) {
+        results[i] = UserImportResult.failed(row.getLine(), row.getRow().getEmail(), error);
+      }
+      return error != null;
+    });
+
+    if (!valid.isEmpty()) {
+      try {
+        transactionTemplate.execute(status -> {
+          upsert(chunk, valid, existing, groups, applications, results);
+          return null;
+        });
+      } catch (RuntimeException e) {
+        log.warn("Failed to import a chunk of {} users: {}", valid.size(), e.getMessage());
+        for (int i : valid) {
+          val row = chunk.get(i);
+          results[i] = UserImportResult.failed(row.getLine(), row.getRow().getEmail(),
+              "Not imported, the batch it was part of failed: " + getMostSpecificCause(e).getMessage());
+        }
+      }
+    }
+    return Arrays.asList(results);
+  }
+
+  private void upsert(List<ParsedRow> chunk, List<Integer> valid, Map<String, ExistingUser> existing,
+                      Map<String, UUID> groups, Map<String, UUID> applications, UserImportResult[] results) {
+    val emails = valid.stream().map(i -> chunk.get(i).getRow().getEmail()).collect(Collectors.toSet());
+    val createdAt = formatter.format(new Date());
+
+    // Existing users keep the spelling of their email so the upsert conflicts with them
+    val userArgs = new ArrayList<Object[]>();
+    for (int i : valid) {
+      val row = chunk.get(i).getRow();
+      val user = existing.get(row.getEmail());
+      val email = user == null ? row.getEmail() : user.getEmail();
+      val role = row.getRole() == null ? defaultUserRole : row.getRole();
+      val status = row.getStatus() == null ? defaultUserStatus : row.getStatus();
+      userArgs.add(new Object[] { UUID.randomUUID(), email, email, role, row.getFirstName(), row.getLastName(),
+          createdAt, status, row.getPreferredLanguage(),
+          row.getRole(), row.getFirstName(), row.getLastName(), row.getStatus(), row.getPreferredLanguage() });
+    }
+    jdbcTemplate.getJdbcOperations().batchUpdate(UPSERT_USER, userArgs);
+
+    val ids = selectUsers(emails, new HashSet<>());
+    val groupArgs = new ArrayList<Object[]>();
+    val applicationArgs = new ArrayList<Object[]>();
+    val seen = new HashSet<String>(existing.keySet());
+    val regrouped = new ArrayList<UUID>();
+    for (int i : valid) {
+      val parsed = chunk.get(i);
+      val row = parsed.getRow();
+      val id = ids.get(row.getEmail()).getId();
+      row.getGroups().forEach(g -> groupArgs.add(new Object[] { id, groups.get(g.toLowerCase()) }));
+      row.getApplications().forEach(a -> applicationArgs.add(new Object[] { id, applications.get(a.toLowerCase()) }));
+      val result = seen.add(row.getEmail()) ? UserImportResult.CREATED : UserImportResult.UPDATED;
+      results[i] = new UserImportResult(parsed.getLine(), row.getEmail(), result, id, null);
+      if (existing.containsKey(row.getEmail()) && !row.getGroups().isEmpty()) {
+        regrouped.add(id);
+      }
+    }
+    effectivePermissionService.invalidateUsers(regrouped);
+    if (!groupArgs.isEmpty()) {
+      jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_USER_GROUP, groupArgs);
+    }
+    if (!applicationArgs.isEmpty()) {
+      jdbcTemplate.getJdbcOperations().batchUpdate(INSERT_USER_APPLICATION, applicationArgs);
+    }
+  }
+
+  /*
+    Checks required fields and normalizes the row in place: trimmed, lower case email, nulls for
+    values not given and enum values in the spelling the database expects
+   */
+  private String validate(UserImportRow row) {
+    if (StringUtils.isEmpty(row.getEmail()) || !row.getEmail().contains("@")) {
+      return "A valid email is required";
+    }
+    row.setEmail(row.getEmail().trim().toLowerCase());
+    if (row.getEmail().length() > MAX_LENGTH) {
+      return "Email is longer than " + MAX_LENGTH + " characters";
+    }
+
+    val role = normalize(row.getRole(), Arrays.stream(UserRole.values()).map(UserRole::toString));
+    if (role == null && !StringUtils.isEmpty(row.getRole())) {
+      return "Unknown role: " + row.getRole();
+    }
+    row.setRole(role);
+
+    val status = normalize(row.getStatus(), Arrays.stream(UserStatus.values()).map(UserStatus::toString));
+    if (status == null && !StringUtils.isEmpty(row.getStatus())) {
+      return "Unknown status: " + row.getStatus();
+    }
+    row.setStatus(status);
+
+    val language = normalize(row.getPreferredLanguage(), LANGUAGES.stream());
+    if (language == null && !StringUtils.isEmpty(row.getPreferredLanguage())) {
+      return "Unknown preferred language: " + row.getPreferredLanguage();
+    }
+    row.setPreferredLanguage(language);
+    row.setFirstName(StringUtils.isEmpty(row.getFirstName()) ? null : row.getFirstName());
+    row.setLastName(StringUtils.isEmpty(row.getLastName()) ? null : row.getLastName());
+    row.setGroups(clean(row.getGroups()));
+    row.setApplications(clean(row.getApplications()));
+    return null;
+  }
+
+  private static String normalize(String value, Stream<String> allowed) {
+    if (StringUtils.isEmpty(value)) {
+      return null;
+    }
+    return allowed.filter(a -> a.equalsIgnoreCase(value.trim())).findFirst().orElse(null);
+  }
+
+  private static List<String> clean(List<String> values) {
+    if (values == null) {
+      return Collections.emptyList();
+    }
+    return values.stream()
+        .filter(v -> !StringUtils.isEmpty(v))
+        .map(String::trim)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  private static String findUnknown(String type, List<String> names, Map<String, UUID> known) {
+    return names.stream()
+        .filter(n -> !known.containsKey(n.toLowerCase()))
+        .findFirst()
+        .map(n -> "Unknown " + type + ": " + n)
+        .orElse(null);
+  }
+
+  private Map<String, UUID> lookup(String sql, String parameter, Set<String> names) {
+    val found = new HashMap<String, UUID>();
+    if (!names.isEmpty()) {
+      val lowerCase = names.stream().map(String::toLowerCase).collect(Collectors.toSet());
+      jdbcTemplate.query(sql, Collections.singletonMap(parameter, lowerCase),
+          rs -> { found.put(rs.getString(2), (UUID) rs.getObject(1)); });
+    }
+    return found;
+  }
+
+  /*
+    Existing users by lower case email. Emails matching several users are left out and added to ambiguous
+   */
+  private Map<String, ExistingUser> selectUsers(Collection<String> emails, Set<String> ambiguous) {
+    val found = new HashMap<String, ExistingUser>();
+    if (!emails.isEmpty()) {
+      jdbcTemplate.query(SELECT_USERS, Collections.singletonMap("emails", emails), rs -> {
+        val email = rs.getString(2);
+        if (found.putIfAbsent(email, new ExistingUser((UUID) rs.getObject(1), rs.getString(3))) != null) {
+          ambiguous.add(email);
+        }
+      });
+      ambiguous.forEach(found::remove);
+    }
+    return found;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class ExistingUser {
+    private final UUID id;
+    private final String email;
+  }
+
+  /*
+    Input parsing
+   */
+  @Getter
+  @AllArgsConstructor
+  private static class ParsedRow {
+    private final long line;
+    private final UserImportRow row;
+    private final String error;
+  }
+
+  private interface Rows {
+    ParsedRow next() throws IOException;
+  }
+
+  private static class NdjsonRows implements Rows {
+    private final BufferedReader reader;
+    private long line;
+
+    NdjsonRows(BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public ParsedRow next() throws IOException {
+      String text;
+      while ((text = reader.readLine()) != null) {
+        line++;
+        if (text.trim().isEmpty()) {
+          continue;
+        }
+        try {
+          return new ParsedRow(line, ROW_READER.readValue(text), null);
+        } catch (IOException e) {
+          return new ParsedRow(line, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+      }
+      return null;
+    }
+  }
+
+  /*
+    CSV with a header row naming the columns (case insensitive). Values may be quoted,
+    groups and applications are separated by '|' within their column.
+   */
+  private static class CsvRows implements Rows {
+    private final BufferedReader reader;
+    private long line;
+    private List<String> header;
+
+    CsvRows(BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public ParsedRow next() throws IOException {
+      String text;
+      while ((text = reader.readLine()) != null) {
+        line++;
+        if (text.trim().isEmpty()) {
+          continue;
+        }
+        val values = parseLine(text);
+        if (header == null) {
+          header = values.stream().map(v -> v.trim().toLowerCase()).collect(Collectors.toList());
+          continue;
+        }
+        if (values.size() > header.size()) {
+          return new ParsedRow(line, null, "More values than header columns");
+        }
+        return new ParsedRow(line, toRow(values), null);
+      }
+      return null;
+    }
+
+    private UserImportRow toRow(List<String> values) {
+      val row = new UserImportRow();
+      for (int i = 0; i < values.size(); i++) {
+        val value = values.get(i);
+        switch (header.get(i)) {
+          case "email": row.setEmail(value); break;
+          case "firstname": row.setFirstName(value); break;
+          case "lastname": row.setLastName(value); break;
+          case "role": row.setRole(value); break;
+          case "status": row.setStatus(value); break;
+          case "preferredlanguage": row.setPreferredLanguage(value); break;
+          case "groups": row.setGroups(Arrays.asList(value.split(CSV_LIST_SEPARATOR))); break;
+          case "applications": row.setApplications(Arrays.asList(value.split(CSV_LIST_SEPARATOR))); break;
+          default: break;
+        }
+      }
+      return row;
+    }
+
+    private static List<String> parseLine(String text) {
+      val values = new ArrayList<String>();
+      val value = new StringBuilder();
+      boolean quoted = false;
+      for (int i = 0; i < text.length(); i++) {
+        val c = text.charAt(i);
+        if (quoted) {
+          if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+            value.append('"');
+            i++;
+          } else if (c == '"') {
+            quoted = false;
+          } else {
+            value.append(c);
+          }
+        } else if (c == '"') {
+          quoted = true;
+        } else if (c == ',') {
+          values.add(value.toString());
+          value.setLength(0);
+        } else {
+          value.append(c);
+        }
+      }
+      values.add(value.toString());
+      return values;
+    }
+  }
+
+}
@@ -27,6 +27,8 @@ import org.overture.ego.model.enums.UserRole;
 import org.overture.ego.model.enums.UserStatus;
 import org.overture.ego.model.params.Scope;
 import org.overture.ego.model.search.SearchFilter;
+import org.overture.ego.repository.MembershipRepository;
+import org.overture.ego.repository.TrigramSupport;
 import org.overture.ego.repository.UserRepository;
 import org.overture.ego.repository.queryspecification.UserSpecification;
 import org.overture.ego.token.IDToken;
@@ -39,12 +41,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import javax.persistence.EntityNotFoundException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 
 import static java.util.UUID.fromString;
+import static org.overture.ego.repository.MembershipRepository.Membership.USER_APPLICATIONS;
+import static org.overture.ego.repository.MembershipRepository.Membership.USER_GROUPS;
 import static org.springframework.data.jpa.domain.Specifications.where;
 
 @Slf4j
@@ -73,9 +78,10 @@ public class UserService extends BaseService<User, UUID> {
     Dependencies
    */
   private final UserRepository userRepository;
-  private final GroupService groupService;
-  private final ApplicationService applicationService;
+  private final MembershipRepository membershipRepository;
   private final PolicyService policyService;
+  private final EffectivePermissionService effectivePermissionService;
+  private final TrigramSupport trigramSupport;
   private final SimpleDateFormat formatter;
 
   public User create(@NonNull User userInfo) {
@@ -127,20 +133,15 @@ public class UserService extends BaseService<User, UUID> {
 
   public User addUserToGroups(@NonNull String userId, @NonNull List<String> groupIDs){
     val user = getById(userRepository, fromString(userId));
-    groupIDs.forEach(grpId -> {
-      val group = groupService.get(grpId);
-      user.addNewGroup(group);
-    });
-    return userRepository.save(user);
+    membershipRepository.add(USER_GROUPS, user.getId(), fromStrings(groupIDs));
+    effectivePermissionService.invalidateUser(user.getId());
+    return membershipRepository.refresh(user);
   }
 
   public User addUserToApps(@NonNull String userId, @NonNull List<String> appIDs){
     val user = getById(userRepository, fromString(userId));
-    appIDs.forEach(appId -> {
-      val app = applicationService.get(appId);
-      user.addNewApplication(app);
-    });
-    return userRepository.save(user);
+    membershipRepository.add(USER_APPLICATIONS, user.getId(), fromStrings(appIDs));
+    return membershipRepository.refresh(user);
   }
 
   public User addUserPermissions(@NonNull String userId, @NonNull List<Scope> permissions) {
@@ -148,6 +149,7 @@ public class UserService extends BaseService<User, UUID> {
     permissions.forEach(permission -> {
       user.addNewPermission(policyService.get(permission.getAclEntityId()), PolicyMask.fromValue(permission.getMask()));
     });
+    effectivePermissionService.invalidateUser(user.getId());
     return userRepository.save(user);
   }
 
@@ -155,6 +157,14 @@ public class UserService extends BaseService<User, UUID> {
     return getById(userRepository, fromString(userId));
   }
 
+  /*
+    Loads the user with the groups and applications needed for tokens and authorization checks,
+    which may happen outside of any open session
+   */
+  public User getForToken(@NonNull String userId) {
+    return userRepository.findForTokenById(fromString(userId)).orElseThrow(EntityNotFoundException::new);
+  }
+
   public User getByName(@NonNull String userName) {
     return userRepository.findOneByNameIgnoreCase(userName);
   }
@@ -166,37 +176,37 @@ public class UserService extends BaseService<User, UUID> {
     else if(UserRole.ADMIN.toString().equals(updatedUserInfo.getRole().toUpperCase()))
       updatedUserInfo.setRole(UserRole.ADMIN.toString());
     user.update(updatedUserInfo);
+    effectivePermissionService.invalidateUser(user.getId());
     return userRepository.save(user);
   }
 
   public void delete(@NonNull String userId) {
+    effectivePermissionService.invalidateUser(fromString(userId));
     userRepository.deleteById(fromString(userId));
   }
 
   public Page<User> listUsers(@NonNull List<SearchFilter> filters,@NonNull Pageable pageable) {
-    return userRepository.findAll(UserSpecification.filterBy(filters), pageable);
+    return findAll(userRepository, User.class, "user-summary", UserSpecification.filterBy(filters), pageable);
   }
 
   public Page<User> findUsers(@NonNull String query, @NonNull List<SearchFilter> filters, @NonNull Pageable pageable) {
-    return userRepository.findAll(
+    return findAll(userRepository, User.class, "user-summary",
             where(UserSpecification.containsText(query))
-            .and(UserSpecification.filterBy(filters)), pageable);
+            .and(UserSpecification.filterBy(filters))
+            .and(UserSpecification.rankedBy(query, trigramSupport.isAvailable())), pageable);
   }
 
   public void deleteUserFromGroups(@NonNull String userId, @NonNull List<String> groupIDs) {
     val user = getById(userRepository, fromString(userId));
-    groupIDs.forEach(grpId -> {
-      user.removeGroup(fromString(grpId));
-    });
-    userRepository.save(user);
+    membershipRepository.remove(USER_GROUPS, user.getId(), fromStrings(groupIDs));
+    effectivePermissionService.invalidateUser(user.getId());
+    membershipRepository.refresh(user);
   }
 
   public void deleteUserFromApps(@NonNull String userId, @NonNull List<String> appIDs) {
     val user = getById(userRepository, fromString(userId));
-    appIDs.forEach(appId -> {
-      user.removeApplication(fromString(appId));
-    });
-    userRepository.save(user);
+    membershipRepository.remove(USER_APPLICATIONS, user.getId(), fromStrings(appIDs));
+    membershipRepository.refresh(user);
   }
 
   public void deleteUserPermissions(@NonNull String userId, @NonNull List<String> permissionsIds) {
@@ -204,12 +214,13 @@ public class UserService extends BaseService<User, UUID> {
     permissionsIds.forEach(permissionsId -> {
       user.removePermission(fromString(permissionsId));
     });
+    effectivePermissionService.invalidateUser(user.getId());
     userRepository.save(user);
   }
 
   public Page<User> findGroupUsers(@NonNull String groupId, @NonNull List<SearchFilter> filters,
                                    @NonNull Pageable pageable){
-    return userRepository.findAll(
+    return findAll(userRepository, User.class, "user-summary",
             where(UserSpecification.inGroup(fromString(groupId)))
             .and(UserSpecification.filterBy(filters)),
             pageable);
@@ -217,7 +228,7 @@ public class UserService extends BaseService<User, UUID> {
 
   public Page<User> findGroupUsers(@NonNull String groupId, @NonNull String query,
                                    @NonNull List<SearchFilter> filters, @NonNull Pageable pageable){
-    return userRepository.findAll(
+    return findAll(userRepository, User.class, "user-summary",
             where(UserSpecification.inGroup(fromString(groupId)))
                     .and(UserSpecification.containsText(query))
                     .and(UserSpecification.filterBy(filters)),
@@ -226,7 +237,7 @@ public class UserService extends BaseService<User, UUID> {
 
   public Page<User> findAppUsers(@NonNull String appId, @NonNull List<SearchFilter> filters,
                                  @NonNull Pageable pageable){
-    return userRepository.findAll(
+    return findAll(userRepository, User.class, "user-summary",
             where(UserSpecification.ofApplication(fromString(appId)))
             .and(UserSpecification.filterBy(filters)),
             pageable);
@@ -235,7 +246,7 @@ public class UserService extends BaseService<User, UUID> {
   public Page<User> findAppUsers(@NonNull String appId, @NonNull String query,
                                  @NonNull List<SearchFilter> filters,
                                  @NonNull Pageable pageable){
-    return userRepository.findAll(
+    return findAll(userRepository, User.class, "user-summary",
             where(UserSpecification.ofApplication(fromString(appId)))
                     .and(UserSpecification.containsText(query))
                     .and(UserSpecification.filterBy(filters)),
@@ -243,7 +254,9 @@ public class UserService extends BaseService<User, UUID> {
   }
 
   public Page<UserPermission> getUserPermissions(@NonNull String userId, @NonNull Pageable pageable) {
-    val userPermissions = getById(userRepository, fromString(userId)).getUserPermissions();
+    val userPermissions = userRepository.findWithPermissionsById(fromString(userId))
+        .orElseThrow(EntityNotFoundException::new)
+        .getUserPermissions();
     return new PageImpl<>(userPermissions, pageable, userPermissions.size());
   }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.NonNull;
+import lombok.val;
+import org.overture.ego.token.signer.TokenSigner;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Compact RS256 JWS serialization using the TokenSigner's pooled signatures.
+ * Tokens carry the kid of the key they were signed with and are otherwise identical to the
+ * ones jjwt builds for the same payload, header and key. Parsing applies the same checks
+ * jjwt does: RS256 signature (with the key selected by kid), expiry and not-before.
+ */
+public class CompactJws {
+
+  /*
+    Constants
+   */
+  private static final String ALGORITHM = "RS256";
+  private static final String SEPARATOR = ".";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+  private static final ObjectReader MAP_READER = new ObjectMapper().readerFor(Map.class);
+
+  public static String sign(@NonNull TokenSigner signer, @NonNull String payload) {
+    val kid = signer.getKeyId().orElseThrow(() -> new IllegalStateException("No key available for signing tokens."));
+    val signingInput = encodeHeader(kid) + SEPARATOR + encode(payload.getBytes(StandardCharsets.UTF_8));
+    val signature = signer.sign(kid, signingInput.getBytes(StandardCharsets.US_ASCII));
+    return signingInput + SEPARATOR + encode(signature);
+  }
+
+  public static Claims parse(@NonNull TokenSigner signer, @NonNull String token) {
+    val headerEnd = token.indexOf('.');
+    val payloadEnd = token.lastIndexOf('.');
+    if (headerEnd < 0 || headerEnd == payloadEnd || token.indexOf('.', headerEnd + 1) != payloadEnd) {
+      throw new MalformedJwtException("JWT strings must contain exactly 2 period characters.");
+    }
+
+    val header = readJson(token.substring(0, headerEnd));
+    if (!ALGORITHM.equals(header.get("alg"))) {
+      throw new UnsupportedJwtException("Only " + ALGORITHM + " signed tokens are supported.");
+    }
+    val signature = decode(token.substring(payloadEnd + 1));
+    if (signature.length == 0) {
+      throw new UnsupportedJwtException("Unsigned tokens are not supported.");
+    }
+    val kid = header.get("kid");
+    if (kid != null && !(kid instanceof String)) {
+      throw new MalformedJwtException("JWT kid header must be a string.");
+    }
+    // Tokens issued before key ids were introduced have no kid, they are checked against the active key
+    val signingInput = token.substring(0, payloadEnd).getBytes(StandardCharsets.US_ASCII);
+    if (!signer.verify((String) kid, signingInput, signature)) {
+      throw new SignatureException("JWT signature does not match locally computed signature.");
+    }
+
+    val claims = Jwts.claims(readJson(token.substring(headerEnd + 1, payloadEnd)));
+    val now = new Date();
+    val exp = claims.getExpiration();
+    if (exp != null && now.after(exp)) {
+      throw new ExpiredJwtException(Jwts.jwsHeader(header), claims,
+          "JWT expired at " + exp + ". Current time: " + now);
+    }
+    val nbf = claims.getNotBefore();
+    if (nbf != null && now.before(nbf)) {
+      throw new PrematureJwtException(Jwts.jwsHeader(header), claims,
+          "JWT must not be accepted before " + nbf + ". Current time: " + now);
+    }
+    return claims;
+  }
+
+  // The kid is a base64url thumbprint, it never needs escaping
+  private static String encodeHeader(String kid) {
+    val header = "{\"alg\":\"" + ALGORITHM + "\",\"kid\":\"" + kid + "\"}";
+    return encode(header.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String encode(byte[] bytes) {
+    return ENCODER.encodeToString(bytes);
+  }
+
+  private static byte[] decode(String encoded) {
+    try {
+      return DECODER.decode(encoded);
+    } catch (IllegalArgumentException ex) {
+      throw new MalformedJwtException("Invalid Base64url encoding in JWT.", ex);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> readJson(String encoded) {
+    try {
+      Map<String, Object> json = MAP_READER.readValue(decode(encoded));
+      if (json == null) {
+        throw new MalformedJwtException("JWT header and payload must be JSON objects.");
+      }
+      return json;
+    } catch (IOException ex) {
+      throw new MalformedJwtException("Unable to read JWT JSON.", ex);
+    }
+  }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.token;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.overture.ego.model.entity.Application;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.token.app.AppTokenClaims;
+import org.overture.ego.token.user.UserTokenClaims;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Writes token claims straight to their compact JSON payload with a streaming generator.
+ * The output is byte-for-byte what serializing the claims with the JWTAccessToken view
+ * produces: same properties, same order, nulls kept for users and omitted for applications.
+ */
+public class TokenClaimsEncoder {
+
+  /*
+    Constants
+   */
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  // Field names are encoded once and copied as-is into every payload
+  private static final SerializableString IAT = new SerializedString("iat");
+  private static final SerializableString EXP = new SerializedString("exp");
+  private static final SerializableString SUB = new SerializedString("sub");
+  private static final SerializableString ISS = new SerializedString("iss");
+  private static final SerializableString AUD = new SerializedString("aud");
+  private static final SerializableString JTI = new SerializedString("jti");
+  private static final SerializableString CONTEXT = new SerializedString("context");
+  private static final SerializableString USER = new SerializedString("user");
+  private static final SerializableString APPLICATION = new SerializedString("application");
+
+  private static final SerializableString NAME = new SerializedString("name");
+  private static final SerializableString EMAIL = new SerializedString("email");
+  private static final SerializableString STATUS = new SerializedString("status");
+  private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+  private static final SerializableString LAST_NAME = new SerializedString("lastName");
+  private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+  private static final SerializableString LAST_LOGIN = new SerializedString("lastLogin");
+  private static final SerializableString PREFERRED_LANGUAGE = new SerializedString("preferredLanguage");
+  private static final SerializableString ROLES = new SerializedString("roles");
+  private static final SerializableString GROUPS = new SerializedString("groups");
+  private static final SerializableString PERMISSIONS = new SerializedString("permissions");
+  private static final SerializableString CLIENT_ID = new SerializedString("clientId");
+  private static final SerializableString REDIRECT_URI = new SerializedString("redirectUri");
+  private static final SerializableString DESCRIPTION = new SerializedString("description");
+
+  @SneakyThrows
+  public static String encode(@NonNull UserTokenClaims claims) {
+    val writer = new StringWriter();
+    try (val gen = JSON_FACTORY.createGenerator(writer)) {
+      writeHeaderClaims(gen, claims);
+      gen.writeFieldName(CONTEXT);
+      gen.writeStartObject();
+      gen.writeFieldName(USER);
+      writeUser(gen, claims.getContext().getUserInfo());
+      gen.writeEndObject();
+      gen.writeEndObject();
+    }
+    return writer.toString();
+  }
+
+  @SneakyThrows
+  public static String encode(@NonNull AppTokenClaims claims) {
+    val writer = new StringWriter();
+    try (val gen = JSON_FACTORY.createGenerator(writer)) {
+      writeHeaderClaims(gen, claims);
+      gen.writeFieldName(CONTEXT);
+      gen.writeStartObject();
+      gen.writeFieldName(APPLICATION);
+      writeApplication(gen, claims.getContext().getAppInfo());
+      gen.writeEndObject();
+      gen.writeEndObject();
+    }
+    return writer.toString();
+  }
+
+  private static void writeHeaderClaims(JsonGenerator gen, TokenClaims claims) throws IOException {
+    gen.writeStartObject();
+    gen.writeFieldName(IAT);
+    gen.writeNumber(claims.getIat());
+    gen.writeFieldName(EXP);
+    gen.writeNumber(claims.getExp());
+    writeString(gen, SUB, claims.getSub());
+    writeString(gen, ISS, claims.getIss());
+    writeStrings(gen, AUD, claims.getAud());
+    writeString(gen, JTI, claims.getJti());
+  }
+
+  private static void writeUser(JsonGenerator gen, User user) throws IOException {
+    gen.writeStartObject();
+    writeString(gen, NAME, user.getName());
+    writeString(gen, EMAIL, user.getEmail());
+    writeString(gen, STATUS, user.getStatus());
+    writeString(gen, FIRST_NAME, user.getFirstName());
+    writeString(gen, LAST_NAME, user.getLastName());
+    writeString(gen, CREATED_AT, user.getCreatedAt());
+    writeString(gen, LAST_LOGIN, user.getLastLogin());
+    writeString(gen, PREFERRED_LANGUAGE, user.getPreferredLanguage());
+    writeStrings(gen, ROLES, user.getRoles());
+    writeStrings(gen, GROUPS, user.getGroups());
+    writeStrings(gen, PERMISSIONS, user.getPermissions());
+    gen.writeEndObject();
+  }
+
+  private static void writeApplication(JsonGenerator gen, Application app) throws IOException {
+    // Applications only include non-null values in their JSON
+    gen.writeStartObject();
+    writeNonNullString(gen, NAME, app.getName());
+    writeNonNullString(gen, CLIENT_ID, app.getClientId());
+    writeNonNullString(gen, REDIRECT_URI, app.getRedirectUri());
+    writeNonNullString(gen, DESCRIPTION, app.getDescription());
+    writeNonNullString(gen, STATUS, app.getStatus());
+    writeStrings(gen, GROUPS, app.getGroups());
+    gen.writeEndObject();
+  }
+
+  private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+    gen.writeFieldName(name);
+    if (value == null) {
+      gen.writeNull();
+    } else {
+      gen.writeString(value);
+    }
+  }
+
+  private static void writeNonNullString(JsonGenerator gen, SerializableString name, String value)
+      throws IOException {
+    if (value != null) {
+      gen.writeFieldName(name);
+      gen.writeString(value);
+    }
+  }
+
+  private static void writeStrings(JsonGenerator gen, SerializableString name, List<String> values)
+      throws IOException {
+    gen.writeFieldName(name);
+    if (values == null) {
+      gen.writeNull();
+      return;
+    }
+    gen.writeStartArray();
+    for (val value : values) {
+      if (value == null) {
+        gen.writeNull();
+      } else {
+        gen.writeString(value);
+      }
+    }
+    gen.writeEndArray();
+  }
+
+}
@@ -21,8 +21,10 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.overture.ego.model.entity.Application;
+import org.overture.ego.model.entity.Group;
 import org.overture.ego.model.entity.User;
-import org.overture.ego.reactor.events.UserEvents;
+import org.overture.ego.service.EffectivePermissionService;
+import org.overture.ego.service.LastLoginService;
 import org.overture.ego.service.UserService;
 import org.overture.ego.token.app.AppJWTAccessToken;
 import org.overture.ego.token.app.AppTokenClaims;
@@ -37,10 +39,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityNotFoundException;
 import java.security.InvalidKeyException;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -51,14 +60,27 @@ public class TokenService {
 
   @Value("${jwt.duration:86400000}")
   private int DURATION;
+
+  // When enabled, the request principal is built from the verified token claims
+  // and only refreshed from the database for admin checks or once the token is older than max-staleness
+  @Value("${auth.token.stateless.enabled:false}")
+  private boolean statelessPrincipal;
+  @Value("${auth.token.stateless.max-staleness:300000}")
+  private long maxStaleness;
   @Autowired
   private UserService userService;
   @Autowired
-  private UserEvents userEvents;
+  private LastLoginService lastLoginService;
+  @Autowired
+  private EffectivePermissionService effectivePermissionService;
   @Autowired
   TokenSigner tokenSigner;
   @Autowired
   private SimpleDateFormat dateFormatter;
+  @Autowired
+  private VerifiedTokenCache verifiedTokenCache;
+  @Value("${auth.token.verify.batch.max-size:1000}")
+  private int maxBatchSize;
   /*
     Constant
   */
@@ -81,22 +103,25 @@ public class TokenService {
     }
 
     // Update user.lastLogin in the DB
-    // Use events as these are async:
+    // Logins are queued and written in periodic batches:
     //    the DB call won't block returning the Token
     user.setLastLogin(dateFormatter.format(new Date()));
-    userEvents.update(user);
+    lastLoginService.recordLogin(user.getId(), user.getLastLogin());
 
     return generateUserToken(user);
   }
 
   @SneakyThrows
   public String generateUserToken(User u) {
+    if (u.getId() != null) {
+      u.setEffectivePermissions(effectivePermissionService.getPermissions(u.getId()));
+    }
     val tokenContext = new UserTokenContext(u);
     val tokenClaims = new UserTokenClaims();
     tokenClaims.setIss(ISSUER_NAME);
     tokenClaims.setValidDuration(DURATION);
     tokenClaims.setContext(tokenContext);
-    return getSignedToken(tokenClaims);
+    return getSignedToken(TokenClaimsEncoder.encode(tokenClaims));
   }
 
   @SneakyThrows
@@ -106,28 +131,74 @@ public class TokenService {
     tokenClaims.setIss(ISSUER_NAME);
     tokenClaims.setValidDuration(DURATION);
     tokenClaims.setContext(tokenContext);
-    return getSignedToken(tokenClaims);
+    return getSignedToken(TokenClaimsEncoder.encode(tokenClaims));
   }
 
   public boolean validateToken(String token) {
 
-    Jws decodedToken = null;
+    Claims claims = null;
     try{
-        decodedToken  = Jwts.parser()
-        .setSigningKey(tokenSigner.getKey().get())
-        .parseClaimsJws(token);
+      claims = getTokenClaims(token);
     } catch (Exception ex){
       log.error("Error parsing JWT: {}", ex);
     }
-    return (decodedToken != null);
+    return (claims != null);
+  }
+
+  /*
+    Verification is CPU bound (one RSA signature check per token not yet cached),
+    so a batch is spread over the common fork-join pool. Results keep the order of the tokens.
+   */
+  public List<TokenVerification> verifyTokens(List<String> tokens) {
+    return tokens.parallelStream()
+        .map(this::verifyToken)
+        .collect(Collectors.toList());
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  private TokenVerification verifyToken(String token) {
+    if (token == null || token.isEmpty()) {
+      return TokenVerification.invalid("Token is empty");
+    }
+    try {
+      val claims = getTokenClaims(token);
+      return TokenVerification.valid(claims.getSubject(), claims.getExpiration());
+    } catch (ExpiredJwtException e) {
+      return TokenVerification.invalid("Token has expired");
+    } catch (Exception e) {
+      log.debug("Invalid token in batch: {}", e.getMessage());
+      return TokenVerification.invalid("Token failed validation");
+    }
   }
 
   public User getTokenUserInfo(String token) {
     try {
       Claims body = getTokenClaims(token);
       val tokenClaims = TypeUtils.convertToAnotherType(body, UserTokenClaims.class, Views.JWTAccessToken.class);
-      return userService.get(tokenClaims.getSub());
-    } catch (JwtException | ClassCastException e) {
+      if (statelessPrincipal && !isStale(body)) {
+        return getUserFromClaims(tokenClaims, body);
+      }
+      return userService.getForToken(tokenClaims.getSub());
+    } catch (JwtException | ClassCastException | EntityNotFoundException e) {
+      return null;
+    }
+  }
+
+  /*
+    Returns the up to date user from the database when the principal was built from token claims,
+    or null once the user no longer exists
+   */
+  public User refreshTokenUserInfo(User user) {
+    if (!statelessPrincipal || user == null) {
+      return user;
+    }
+    try {
+      return userService.getForToken(user.getId().toString());
+    } catch (EntityNotFoundException e) {
+      log.debug("User {} of the token no longer exists", user.getId());
       return null;
     }
   }
@@ -135,16 +206,58 @@ public class TokenService {
   @SneakyThrows
   public Claims getTokenClaims(String token) {
 
-    if(tokenSigner.getKey().isPresent()) {
-    return Jwts.parser()
-        .setSigningKey(tokenSigner.getKey().get())
-        .parseClaimsJws(token)
-        .getBody();
-  } else {
+    // Each distinct token only needs to be verified once until it expires
+    val cached = verifiedTokenCache.get(token);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+
+    if(tokenSigner.getPublicKey().isPresent()) {
+      val claims = CompactJws.parse(tokenSigner, token);
+      verifiedTokenCache.put(token, claims);
+      return claims;
+    } else {
       throw new InvalidKeyException("Invalid signing key for the token.");
     }
   }
 
+  private boolean isStale(Claims claims) {
+    val issuedAt = claims.getIssuedAt();
+    return issuedAt == null || System.currentTimeMillis() - issuedAt.getTime() > maxStaleness;
+  }
+
+  private User getUserFromClaims(UserTokenClaims tokenClaims, Claims body) {
+    val user = tokenClaims.getContext().getUserInfo();
+    user.setId(UUID.fromString(tokenClaims.getSub()));
+
+    // Groups and applications only carry their names in the token, so they are
+    // kept in name ordered sets rather than relying on (absent) id based equality
+    val groups = new TreeSet<Group>(Comparator.comparing(Group::getName));
+    getClaimValues(getUserClaims(body), "groups").forEach(name -> groups.add(new Group(name)));
+    user.setWholeGroups(groups);
+
+    val applications = new TreeSet<Application>(Comparator.comparing(Application::getName));
+    getClaimValues(body, "aud").forEach(name -> {
+      val app = new Application();
+      app.setName(name);
+      applications.add(app);
+    });
+    user.setWholeApplications(applications);
+    return user;
+  }
+
+  private static Map getUserClaims(Claims body) {
+    val context = (Map) body.get("context");
+    return context == null ? Collections.emptyMap() : (Map) context.get("user");
+  }
+
+  private static List<String> getClaimValues(Map claims, String name) {
+    if (claims == null || !(claims.get(name) instanceof List)) {
+      return Collections.emptyList();
+    }
+    return (List<String>) claims.get(name);
+  }
+
   public UserJWTAccessToken getUserAccessToken(String token){
     return new UserJWTAccessToken(token, this);
   }
@@ -154,12 +267,10 @@ public class TokenService {
   }
 
   @SneakyThrows
-  private String getSignedToken(TokenClaims claims){
+  private String getSignedToken(String payload){
+    // The payload is already the claims JSON, it only has to be encoded and signed
     if(tokenSigner.getKey().isPresent()) {
-      return Jwts.builder()
-          .setClaims(TypeUtils.convertToAnotherType(claims, Map.class, Views.JWTAccessToken.class))
-          .signWith(SignatureAlgorithm.RS256, tokenSigner.getKey().get())
-          .compact();
+      return CompactJws.sign(tokenSigner, payload);
     } else {
       throw new InvalidKeyException("Invalid signing key for the token.");
     }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded cache of already verified JWT claims, keyed by a SHA-256 digest of the token.
+ * Entries are only valid until the token's own expiry, after which they are dropped.
+ * Claims are copied in and out, so that callers never share a mutable map with the cache.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+  /*
+    Constants
+   */
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  /*
+    Dependencies
+   */
+  @Value("${jwt.cache.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${jwt.cache.max-size:10000}")
+  private int maxSize = 10000;
+
+  /*
+    Variables
+   */
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  public Optional<Claims> get(@NonNull String token) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    val key = digest(token);
+    val entry = entries.get(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (entry.isExpired(System.currentTimeMillis())) {
+      entries.remove(key, entry);
+      return Optional.empty();
+    }
+    return Optional.of(new DefaultClaims(copy(entry.getClaims())));
+  }
+
+  public void put(@NonNull String token, @NonNull Claims claims) {
+    // Tokens without an expiry would never be evicted, so they are always re-verified
+    if (!enabled || claims.getExpiration() == null) {
+      return;
+    }
+    val now = System.currentTimeMillis();
+    val expiresAt = claims.getExpiration().getTime();
+    if (expiresAt <= now) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      evictExpired(now);
+      if (entries.size() >= maxSize) {
+        log.debug("Verified token cache is full ({} entries), not caching token", entries.size());
+        return;
+      }
+    }
+    entries.put(digest(token), new Entry(copy(claims), expiresAt));
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  void setMaxSize(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  private void evictExpired(long now) {
+    entries.values().removeIf(e -> e.isExpired(now));
+  }
+
+  // Deep copy of the JSON structure of the claims: nested objects and arrays are copied too
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> copy(Map<String, Object> claims) {
+    val copy = new LinkedHashMap<String, Object>(claims.size());
+    claims.forEach((name, value) -> copy.put(name, copyValue(value)));
+    return copy;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object copyValue(Object value) {
+    if (value instanceof Map) {
+      return copy((Map<String, Object>) value);
+    } else if (value instanceof List) {
+      val copy = new ArrayList<Object>(((List<Object>) value).size());
+      ((List<Object>) value).forEach(v -> copy.add(copyValue(v)));
+      return copy;
+    }
+    return value;
+  }
+
+  @SneakyThrows
+  private static String digest(String token) {
+    val md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+    return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class Entry {
+    private final Map<String, Object> claims;
+    private final long expiresAt;
+
+    boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+
+}
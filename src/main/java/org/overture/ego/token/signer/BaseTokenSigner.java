@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.token.signer;
+
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Key ring shared by the token signers: the active key pair tokens are signed with, plus
+ * any other public keys tokens can still be verified with, selected by kid.
+ * Keys that stop being configured stay usable for verification for the retention period,
+ * so tokens signed before a rotation remain valid until they expire.
+ * Signing and verifying use per-thread RS256 Signature instances initialized with those keys.
+ */
+@Slf4j
+public abstract class BaseTokenSigner implements TokenSigner {
+
+  /*
+    Constants
+   */
+  private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+  private static final String PEM_HEADER = "-----BEGIN PUBLIC KEY-----\r\n";
+  private static final String PEM_FOOTER = "-----END PUBLIC KEY-----";
+  private static final int PEM_LINE_LENGTH = 76;
+  private static final byte[] PEM_LINE_SEPARATOR = "\n".getBytes(StandardCharsets.US_ASCII);
+
+  /*
+    Dependencies
+   */
+  @Value("${token.rotation.retention:86400000}")
+  private long retention = 86400000;
+
+  /*
+    Variables
+   */
+  private volatile KeyRing keyRing = KeyRing.EMPTY;
+  private volatile KeyPair keyPair;
+  private volatile String encodedPublicKey;
+  // Signature objects are not thread safe, every thread keeps its own per key id
+  private final ThreadLocal<Map<String, Signature>> signers = ThreadLocal.withInitial(HashMap::new);
+  private final ThreadLocal<Map<String, Signature>> verifiers = ThreadLocal.withInitial(HashMap::new);
+
+  @Override
+  public Optional<Key> getKey() {
+    return keyPair == null ? Optional.empty() : Optional.ofNullable(keyPair.getPrivate());
+  }
+
+  @Override
+  public Optional<KeyPair> getKeyPair() {
+    return Optional.ofNullable(keyPair);
+  }
+
+  @Override
+  public Optional<PublicKey> getPublicKey() {
+    return keyPair == null ? Optional.empty() : Optional.ofNullable(keyPair.getPublic());
+  }
+
+  @Override
+  public Optional<String> getEncodedPublicKey() {
+    return Optional.ofNullable(encodedPublicKey);
+  }
+
+  @Override
+  public Optional<String> getKeyId() {
+    val activeKey = keyRing.getActiveKey();
+    return activeKey == null ? Optional.empty() : Optional.of(activeKey.getKid());
+  }
+
+  @Override
+  public String getJwks() {
+    return keyRing.getJwks();
+  }
+
+  @Override
+  public String getJwksTag() {
+    return keyRing.getJwksTag();
+  }
+
+  @Override
+  @SneakyThrows
+  public byte[] sign(@NonNull String kid, @NonNull byte[] data) {
+    val signer = getSigner(kid);
+    signer.update(data);
+    return signer.sign();
+  }
+
+  @Override
+  @SneakyThrows
+  public boolean verify(String kid, @NonNull byte[] data, @NonNull byte[] signature) {
+    val verifier = getVerifier(kid);
+    if (verifier == null) {
+      return false;
+    }
+    verifier.update(data);
+    try {
+      return verifier.verify(signature);
+    } catch (SignatureException ex) {
+      // Improperly encoded signature, the verifier has been reset already
+      return false;
+    }
+  }
+
+  /*
+    Called by implementations whenever their keys are (re)loaded
+   */
+  protected synchronized void setKeys(KeyPair active, Collection<PublicKey> verificationKeys) {
+    val now = System.currentTimeMillis();
+    val keys = new LinkedHashMap<String, SigningKey>();
+    SigningKey activeKey = null;
+    if (active != null && active.getPublic() instanceof RSAPublicKey) {
+      activeKey = SigningKey.of((RSAPublicKey) active.getPublic(), active.getPrivate());
+      keys.put(activeKey.getKid(), activeKey);
+    }
+    for (val publicKey : verificationKeys) {
+      if (publicKey instanceof RSAPublicKey) {
+        val key = SigningKey.of((RSAPublicKey) publicKey, null);
+        keys.putIfAbsent(key.getKid(), key);
+      }
+    }
+    for (val previous : keyRing.getKeys().values()) {
+      if (!keys.containsKey(previous.getKid())) {
+        val expiresAt = previous.getExpiresAt() == SigningKey.NEVER ? now + retention : previous.getExpiresAt();
+        if (expiresAt > now) {
+          log.info("Key {} is no longer configured, keeping it for verification until {}",
+              previous.getKid(), expiresAt);
+          keys.put(previous.getKid(), previous.retire(expiresAt));
+        }
+      }
+    }
+    keyRing = new KeyRing(activeKey, keys.values());
+    keyPair = active;
+    encodedPublicKey = active == null || active.getPublic() == null ? null : toPem(active.getPublic());
+    log.info("Loaded token signing keys, active: {}, known: {}", getKeyId().orElse("none"), keys.keySet());
+  }
+
+  protected synchronized void removeExpiredKeys() {
+    val now = System.currentTimeMillis();
+    val current = keyRing;
+    val remaining = new ArrayList<SigningKey>();
+    for (val key : current.getKeys().values()) {
+      if (key.isExpired(now)) {
+        log.info("Retired key {} has expired, removing it", key.getKid());
+      } else {
+        remaining.add(key);
+      }
+    }
+    if (remaining.size() != current.getKeys().size()) {
+      keyRing = new KeyRing(current.getActiveKey(), remaining);
+    }
+  }
+
+  private Signature getSigner(String kid) throws Exception {
+    val key = keyRing.getKey(kid);
+    val privateKey = key == null ? null : key.getPrivateKey();
+    if (privateKey == null) {
+      throw new IllegalStateException("No private key loaded for signing tokens with key " + kid);
+    }
+    return getSignature(signers.get(), key, s -> s.initSign(privateKey));
+  }
+
+  private Signature getVerifier(String kid) throws Exception {
+    val key = keyRing.getKey(kid);
+    if (key == null || key.isExpired(System.currentTimeMillis())) {
+      return null;
+    }
+    return getSignature(verifiers.get(), key, s -> s.initVerify(key.getPublicKey()));
+  }
+
+  /*
+    Signature objects return to their initialized state after each sign/verify call, so they
+    can be reused as long as they were initialized with the same key. As the kid is derived
+    from the key itself, a kid always maps to the same key.
+   */
+  private Signature getSignature(Map<String, Signature> cache, SigningKey key, SignatureInitializer initializer)
+      throws Exception {
+    val cached = cache.get(key.getKid());
+    if (cached != null) {
+      return cached;
+    }
+    if (cache.size() > keyRing.getKeys().size()) {
+      cache.clear();
+    }
+    val created = Signature.getInstance(SIGNATURE_ALGORITHM);
+    initializer.init(created);
+    cache.put(key.getKid(), created);
+    return created;
+  }
+
+  private static String toPem(PublicKey publicKey) {
+    val encoder = Base64.getMimeEncoder(PEM_LINE_LENGTH, PEM_LINE_SEPARATOR);
+    return PEM_HEADER + encoder.encodeToString(publicKey.getEncoded()) + "\n" + PEM_FOOTER;
+  }
+
+  private interface SignatureInitializer {
+    void init(Signature signature) throws Exception;
+  }
+
+}
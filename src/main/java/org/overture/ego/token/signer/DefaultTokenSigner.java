@@ -22,20 +22,20 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
-import sun.misc.BASE64Encoder;
 
 import javax.annotation.PostConstruct;
-import java.security.*;
+import java.security.KeyFactory;
+import java.security.KeyPair;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
-import java.util.Optional;
+import java.util.Collections;
 
 @Slf4j
 @Service
 @Profile("!jks")
-public class DefaultTokenSigner implements TokenSigner {
+public class DefaultTokenSigner extends BaseTokenSigner {
 
 
   /*
@@ -51,49 +51,20 @@ public class DefaultTokenSigner implements TokenSigner {
   @Value("${token.publicKey}")
   private String encodedPubKey;
 
-  /*
-  Variables
-  */
-  private KeyFactory keyFactory;
-  private PrivateKey privateKey;
-  private PublicKey publicKey;
-
-
   @PostConstruct
   @SneakyThrows
   private void init(){
-    keyFactory = KeyFactory.getInstance(KEYFACTORY_TYPE);
+    val keyFactory = KeyFactory.getInstance(KEYFACTORY_TYPE);
     try {
       val decodedpriv = Base64.getDecoder().decode(encodedPrivKey);
       val decodedPub =  Base64.getDecoder().decode(encodedPubKey);
       X509EncodedKeySpec pubKeySpec = new X509EncodedKeySpec(decodedPub);
       PKCS8EncodedKeySpec privKeySpec = new PKCS8EncodedKeySpec(decodedpriv);
-      publicKey = keyFactory.generatePublic(pubKeySpec);
-      privateKey = keyFactory.generatePrivate(privKeySpec);
+      setKeys(new KeyPair(keyFactory.generatePublic(pubKeySpec), keyFactory.generatePrivate(privKeySpec)),
+          Collections.emptyList());
     } catch (InvalidKeySpecException specEx){
       log.error("Error loading keys:{}", specEx);
     }
   }
-  @Override
-  public Optional<Key> getKey() {
-    return Optional.of(privateKey);
-  }
 
-  @Override
-  public Optional<KeyPair> getKeyPair() {
-    return Optional.of(new KeyPair(publicKey, privateKey));
-  }
-
-  @Override
-  public Optional<String> getEncodedPublicKey() {
-    if(publicKey != null){
-      val b64 = new BASE64Encoder();
-      String encodedKey = b64.encodeBuffer(publicKey.getEncoded());
-      encodedKey= "-----BEGIN PUBLIC KEY-----\r\n" + encodedKey + "-----END PUBLIC KEY-----";
-      return Optional.of(encodedKey);
-    } else {
-      return Optional.empty();
-    }
-
-  }
 }
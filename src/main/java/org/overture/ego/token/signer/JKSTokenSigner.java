@@ -22,18 +22,32 @@ import lombok.val;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
-import sun.misc.BASE64Encoder;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.security.*;
-import java.util.Optional;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Signs with the key-alias entry of the keystore. The certificates of every other entry are
+ * accepted for verification, and the keystore file is re-read whenever it changes, so keys
+ * can be rotated by replacing it: put the new key under key-alias and keep the old one
+ * under another alias until the tokens it signed have expired.
+ */
 @Slf4j
 @Service
 @Profile("jks")
-public class JKSTokenSigner implements TokenSigner {
+public class JKSTokenSigner extends BaseTokenSigner {
 
   /*
     Constants
@@ -50,62 +64,76 @@ public class JKSTokenSigner implements TokenSigner {
 
   @Value("${token.key-alias}")
   private String keyalias;
+
+  @Value("${token.rotation.check-interval:60000}")
+  private long checkInterval;
+
   /*
-  Variables
+    Variables
    */
-  private KeyStore keyStore;
-
+  private volatile long lastModified;
+  private ScheduledExecutorService watcher;
 
+  /*
+    Keys are read (and decrypted) once here instead of on every token signed or verified
+   */
   @PostConstruct
-  @SneakyThrows
   private void init(){
-    keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
-    try(val keyStoreFile = new FileInputStream(keyStorePath)) {
-      keyStore.load(keyStoreFile, keyStorePwd.toCharArray());
-    } catch (IOException ioex){
-      log.error("Error loading keystore:{}", ioex);
+    loadKeyStore();
+    if (checkInterval > 0) {
+      watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        val thread = new Thread(r, "key-store-watcher");
+        thread.setDaemon(true);
+        return thread;
+      });
+      watcher.scheduleWithFixedDelay(this::checkKeyStore, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
     }
   }
-  public Optional<Key> getKey(){
-    try{
-       return Optional.of(keyStore.getKey(keyalias,keyStorePwd.toCharArray()));
-    }catch (Exception ex) {
-      log.error("Error getting the key:{}", ex);
-      return Optional.empty();
+
+  @PreDestroy
+  private void shutdown() {
+    if (watcher != null) {
+      watcher.shutdown();
     }
   }
 
-  public Optional<KeyPair> getKeyPair(){
-      val key = this.getKey();
-      val publicKey = this.getPublicKey();
-      if(key.isPresent() && publicKey.isPresent()){
-        return Optional.of(new KeyPair(publicKey.get(), (PrivateKey) key.get()));
-      } else {
-        return Optional.empty();
+  private void checkKeyStore() {
+    try {
+      if (new File(keyStorePath).lastModified() != lastModified) {
+        log.info("Keystore {} changed, reloading keys", keyStorePath);
+        loadKeyStore();
       }
-  }
-
-  public Optional<PublicKey> getPublicKey(){
-    try{
-      val cert = keyStore.getCertificate(keyalias);
-      val publicKey = cert.getPublicKey();
-      return Optional.of(publicKey);
-    }catch (Exception ex) {
-      log.error("Error getting the public key:{}", ex);
-      return Optional.empty();
+      removeExpiredKeys();
+    } catch (Exception ex) {
+      log.error("Error reloading keystore:{}", ex);
     }
   }
 
   @SneakyThrows
-  public Optional<String> getEncodedPublicKey(){
-    val publicKey = this.getPublicKey();
-    if(publicKey.isPresent()){
-      val b64 = new BASE64Encoder();
-      String encodedKey = b64.encodeBuffer(publicKey.get().getEncoded());
-      encodedKey= "-----BEGIN PUBLIC KEY-----\r\n" + encodedKey + "-----END PUBLIC KEY-----";
-      return Optional.of(encodedKey);
-    } else {
-      return Optional.empty();
+  private void loadKeyStore() {
+    val keyStore = KeyStore.getInstance(KEYSTORE_TYPE);
+    // Read before loading, a change made while loading is picked up by the next check
+    val modified = new File(keyStorePath).lastModified();
+    try(val keyStoreFile = new FileInputStream(keyStorePath)) {
+      keyStore.load(keyStoreFile, keyStorePwd.toCharArray());
+    } catch (IOException ioex){
+      log.error("Error loading keystore:{}", ioex);
+      return;
+    }
+    try {
+      val key = (PrivateKey) keyStore.getKey(keyalias, keyStorePwd.toCharArray());
+      val cert = keyStore.getCertificate(keyalias);
+      val verificationKeys = new ArrayList<PublicKey>();
+      for (val alias : Collections.list(keyStore.aliases())) {
+        val aliasCert = keyStore.getCertificate(alias);
+        if (!alias.equals(keyalias) && aliasCert != null) {
+          verificationKeys.add(aliasCert.getPublicKey());
+        }
+      }
+      setKeys(new KeyPair(cert.getPublicKey(), key), verificationKeys);
+      lastModified = modified;
+    } catch (Exception ex) {
+      log.error("Error getting the keys:{}", ex);
     }
   }
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.token.signer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.val;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the keys a signer knows about: the active signing key, every key
+ * tokens may still be verified with (by kid), and their JWKS document with its ETag.
+ * A new snapshot replaces the old one as a whole when keys are loaded or retired.
+ */
+@Getter
+class KeyRing {
+
+  /*
+    Constants
+   */
+  static final KeyRing EMPTY = new KeyRing(null, Collections.emptyList());
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private final SigningKey activeKey;
+  private final Map<String, SigningKey> keys;
+  private final String jwks;
+  private final String jwksTag;
+
+  @SneakyThrows
+  KeyRing(SigningKey activeKey, Collection<SigningKey> keys) {
+    val byKid = new LinkedHashMap<String, SigningKey>();
+    keys.forEach(k -> byKid.put(k.getKid(), k));
+    this.activeKey = activeKey;
+    this.keys = Collections.unmodifiableMap(byKid);
+
+    val jwkList = byKid.values().stream().map(SigningKey::toJwk).collect(Collectors.toList());
+    this.jwks = MAPPER.writeValueAsString(Collections.singletonMap("keys", jwkList));
+    val digest = MessageDigest.getInstance("SHA-256").digest(jwks.getBytes(StandardCharsets.UTF_8));
+    this.jwksTag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+  }
+
+  SigningKey getKey(String kid) {
+    return kid == null ? activeKey : keys.get(kid);
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.overture.ego.token.signer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.val;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One RSA key of the key ring. The key id is the RFC 7638 thumbprint of the public key,
+ * so the same key always gets the same id no matter where or when it was loaded.
+ * Keys without a private key (or retired ones) are only used to verify tokens.
+ */
+@Getter
+@AllArgsConstructor
+public class SigningKey {
+
+  /*
+    Constants
+   */
+  public static final long NEVER = Long.MAX_VALUE;
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  private final String kid;
+  private final RSAPublicKey publicKey;
+  private final PrivateKey privateKey;
+  private final long expiresAt;
+
+  public static SigningKey of(@NonNull RSAPublicKey publicKey, PrivateKey privateKey) {
+    return new SigningKey(thumbprint(publicKey), publicKey, privateKey, NEVER);
+  }
+
+  public SigningKey retire(long expiresAt) {
+    return new SigningKey(kid, publicKey, privateKey, expiresAt);
+  }
+
+  public boolean isExpired(long now) {
+    return expiresAt <= now;
+  }
+
+  public Map<String, Object> toJwk() {
+    val jwk = new LinkedHashMap<String, Object>();
+    jwk.put("kty", "RSA");
+    jwk.put("kid", kid);
+    jwk.put("use", "sig");
+    jwk.put("alg", "RS256");
+    jwk.put("n", encode(publicKey.getModulus()));
+    jwk.put("e", encode(publicKey.getPublicExponent()));
+    return jwk;
+  }
+
+  @SneakyThrows
+  private static String thumbprint(RSAPublicKey publicKey) {
+    // Required members in lexicographic order, no whitespace (RFC 7638 section 3)
+    val json = "{\"e\":\"" + encode(publicKey.getPublicExponent()) + "\",\"kty\":\"RSA\",\"n\":\""
+        + encode(publicKey.getModulus()) + "\"}";
+    val digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+    return ENCODER.encodeToString(digest);
+  }
+
+  // Base64url of the unsigned big-endian value (RFC 7518 section 6.3.1)
+  private static String encode(BigInteger value) {
+    val bytes = value.toByteArray();
+    val unsigned = bytes.length > 1 && bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+    return ENCODER.encodeToString(unsigned);
+  }
+
+}
@@ -18,11 +18,35 @@ package org.overture.ego.token.signer;
 
 import java.security.Key;
 import java.security.KeyPair;
+import java.security.PublicKey;
 import java.util.Optional;
 
 public interface TokenSigner {
 
   Optional<Key> getKey();
   Optional<KeyPair> getKeyPair();
+  Optional<PublicKey> getPublicKey();
   Optional<String> getEncodedPublicKey();
+
+  /*
+    Id (kid) of the key new tokens are signed with
+   */
+  Optional<String> getKeyId();
+
+  /*
+    JWKS document with every public key tokens can currently be verified with, and its ETag
+   */
+  String getJwks();
+  String getJwksTag();
+
+  /*
+    RS256 signature of the data with the private key identified by kid
+   */
+  byte[] sign(String kid, byte[] data);
+
+  /*
+    Checks an RS256 signature of the data against the public key identified by kid,
+    or the active key when no kid is given
+   */
+  boolean verify(String kid, byte[] data, byte[] signature);
 }
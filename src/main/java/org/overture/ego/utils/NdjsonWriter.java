@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018. The Ontario Institute for Cancer Research. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.overture.ego.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one JSON document per line (newline delimited JSON) to a stream, so that
+ * clients can process results while they are still being produced.
+ */
+public class NdjsonWriter {
+
+  /*
+    Constants
+   */
+  public static final String MEDIA_TYPE = "application/x-ndjson";
+  private static final byte[] NEWLINE = { '\n' };
+  private static final ObjectWriter WRITER = new ObjectMapper()
+      .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+      .configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, false)
+      .writer();
+
+  private final OutputStream out;
+
+  public NdjsonWriter(@NonNull OutputStream out) {
+    this.out = out;
+  }
+
+  public void write(Object value) throws IOException {
+    WRITER.writeValue(out, value);
+    out.write(NEWLINE);
+  }
+
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+}
@@ -17,26 +17,54 @@
 package org.overture.ego.utils;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.SneakyThrows;
 import lombok.val;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 public class TypeUtils {
+
+  /*
+    Mappers are expensive to build and introspect, so they are configured once and shared.
+    ObjectMapper, ObjectReader and ObjectWriter are all thread-safe once configured.
+   */
+  private static final ObjectMapper VIEW_MAPPER = new ObjectMapper()
+      .configure(JsonGenerator.Feature.IGNORE_UNKNOWN, true)
+      .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
+
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .configure(JsonGenerator.Feature.IGNORE_UNKNOWN, true);
+
+  private static final ConcurrentMap<Class<?>, ObjectWriter> VIEW_WRITERS = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
   @SneakyThrows
   public static  <T> T convertToAnotherType(Object fromObject, Class<T> tClass, Class<?> serializationView){
-    val mapper = new ObjectMapper();
-    mapper.configure(JsonGenerator.Feature.IGNORE_UNKNOWN, true);
-    mapper.configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false);
-    val serializedValue = mapper.writerWithView(serializationView).writeValueAsBytes(fromObject);
-    return mapper.readValue(serializedValue, tClass);
+    // Serialize into an in-memory token stream instead of a byte[] and parse it straight back
+    val buffer = new TokenBuffer(VIEW_MAPPER, false);
+    getViewWriter(serializationView).writeValue(buffer, fromObject);
+    try (JsonParser parser = buffer.asParser()) {
+      return getReader(tClass).readValue(parser);
+    }
   }
 
   public static  <T> T convertToAnotherType(Object fromObject, Class<T> tClass){
-    val mapper = new ObjectMapper();
-    mapper.configure(JsonGenerator.Feature.IGNORE_UNKNOWN, true);
-    return mapper.convertValue(fromObject, tClass);
+    return MAPPER.convertValue(fromObject, tClass);
+  }
+
+  private static ObjectWriter getViewWriter(Class<?> serializationView) {
+    return VIEW_WRITERS.computeIfAbsent(serializationView, VIEW_MAPPER::writerWithView);
+  }
+
+  private static ObjectReader getReader(Class<?> tClass) {
+    return READERS.computeIfAbsent(tClass, VIEW_MAPPER::readerFor);
   }
 }
@@ -0,0 +1,16 @@
+CREATE INDEX idx_acluserpermission_sid ON ACLUSERPERMISSION(sid);
+CREATE INDEX idx_aclgrouppermission_sid ON ACLGROUPPERMISSION(sid);
+CREATE INDEX idx_usergroup_userid ON USERGROUP(userId);
+
+-- Effective permission of each user on each policy: the user's own permissions
+-- combined with those of their groups, keeping the strongest mask (DENY > WRITE > READ)
+CREATE VIEW EFFECTIVEPERMISSION AS
+  SELECT p.userId AS userId, e.id AS entity, e.name AS entityName, MAX(p.mask) AS mask
+  FROM (
+    SELECT up.sid AS userId, up.entity, up.mask FROM ACLUSERPERMISSION up
+    UNION ALL
+    SELECT ug.userId, gp.entity, gp.mask FROM ACLGROUPPERMISSION gp
+      JOIN USERGROUP ug ON ug.grpId = gp.sid
+  ) p
+  JOIN ACLENTITY e ON e.id = p.entity
+  GROUP BY p.userId, e.id, e.name;
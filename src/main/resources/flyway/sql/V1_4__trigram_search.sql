@@ -0,0 +1,9 @@
+-- Trigram indexes for the user search, which matches lower(column) LIKE '%text%'
+-- on every searched column. Each column needs its own index for the OR to use them.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_egouser_name_trgm ON EGOUSER USING GIN (LOWER(name) gin_trgm_ops);
+CREATE INDEX idx_egouser_email_trgm ON EGOUSER USING GIN (LOWER(email) gin_trgm_ops);
+CREATE INDEX idx_egouser_firstname_trgm ON EGOUSER USING GIN (LOWER(firstName) gin_trgm_ops);
+CREATE INDEX idx_egouser_lastname_trgm ON EGOUSER USING GIN (LOWER(lastName) gin_trgm_ops);
+CREATE INDEX idx_egouser_status_trgm ON EGOUSER USING GIN (LOWER(status) gin_trgm_ops);
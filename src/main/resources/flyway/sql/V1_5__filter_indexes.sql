@@ -0,0 +1,10 @@
+-- Indexes for the eq:, prefix:, in: and gt:/lt: filter operators.
+-- Text filters compare lower(column); text_pattern_ops serves both equality and prefix LIKE.
+CREATE INDEX idx_egouser_status_lower ON EGOUSER (LOWER(status) text_pattern_ops);
+CREATE INDEX idx_egouser_name_lower ON EGOUSER (LOWER(name) text_pattern_ops);
+CREATE INDEX idx_egouser_email_lower ON EGOUSER (LOWER(email) text_pattern_ops);
+CREATE INDEX idx_egouser_createdat ON EGOUSER (createdAt);
+CREATE INDEX idx_egouser_lastlogin ON EGOUSER (lastLogin);
+
+CREATE INDEX idx_egogroup_status_lower ON EGOGROUP (LOWER(status) text_pattern_ops);
+CREATE INDEX idx_egoapplication_status_lower ON EGOAPPLICATION (LOWER(status) text_pattern_ops);
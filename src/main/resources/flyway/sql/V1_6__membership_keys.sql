@@ -0,0 +1,16 @@
+-- The membership tables lost their primary keys when their ids became UUIDs (V1_1).
+-- Restore them so that memberships can be added in bulk with ON CONFLICT DO NOTHING.
+DELETE FROM USERGROUP WHERE userId IS NULL OR grpId IS NULL;
+DELETE FROM USERGROUP a USING USERGROUP b
+  WHERE a.ctid < b.ctid AND a.userId = b.userId AND a.grpId = b.grpId;
+ALTER TABLE USERGROUP ADD PRIMARY KEY (userId, grpId);
+
+DELETE FROM USERAPPLICATION WHERE userId IS NULL OR appId IS NULL;
+DELETE FROM USERAPPLICATION a USING USERAPPLICATION b
+  WHERE a.ctid < b.ctid AND a.userId = b.userId AND a.appId = b.appId;
+ALTER TABLE USERAPPLICATION ADD PRIMARY KEY (userId, appId);
+
+DELETE FROM GROUPAPPLICATION WHERE grpId IS NULL OR appId IS NULL;
+DELETE FROM GROUPAPPLICATION a USING GROUPAPPLICATION b
+  WHERE a.ctid < b.ctid AND a.grpId = b.grpId AND a.appId = b.appId;
+ALTER TABLE GROUPAPPLICATION ADD PRIMARY KEY (grpId, appId);
@@ -0,0 +1,2 @@
+-- Effective permissions are computed by the in-memory ACL index from the permission tables
+DROP VIEW IF EXISTS EFFECTIVEPERMISSION;
@@ -6,6 +6,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.overture.ego.controller.resolver.PageableResolver;
 import org.overture.ego.model.params.Scope;
+import org.overture.ego.service.EffectivePermissionService;
 import org.overture.ego.service.PolicyService;
 import org.overture.ego.service.GroupService;
 import org.overture.ego.service.UserService;
@@ -16,6 +17,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.util.Arrays;
 import java.util.Collections;
 
@@ -36,9 +38,15 @@ public class UserTest {
   @Autowired
   private PolicyService policyService;
 
+  @Autowired
+  private EffectivePermissionService effectivePermissionService;
+
   @Autowired
   private EntityGenerator entityGenerator;
 
+  @Autowired
+  private EntityManager entityManager;
+
   @Test
   public void testGetPermissionsNoPermissions() {
     entityGenerator.setupSimpleUsers();
@@ -200,6 +208,13 @@ public class UserTest {
         "Study002.WRITE",
         "Study003.READ"
     );
+
+    // The precomputed effective permissions must agree with the entity graph
+    entityManager.flush();
+    for (val user : Arrays.asList(alex, bob, marry)) {
+      assertThat(effectivePermissionService.getPermissions(user.getId()))
+          .containsExactlyInAnyOrderElementsOf(user.getPermissions());
+    }
   }
 
 }
@@ -0,0 +1,59 @@
+package org.overture.ego.provider;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ProviderExecutorsTest {
+
+  @Test
+  public void testProvidersAreBulkheaded() {
+    val executors = new ProviderExecutors();
+    ReflectionTestUtils.setField(executors, "poolSize", 1);
+    ReflectionTestUtils.setField(executors, "queueSize", 1);
+    val release = new CountDownLatch(1);
+
+    // One call running and one queued fill the pool of the slow provider
+    val running = executors.supply("slow", () -> await(release));
+    val queued = executors.supply("slow", () -> await(release));
+    assertThatExceptionOfType(RejectedExecutionException.class)
+        .isThrownBy(() -> executors.supply("slow", () -> await(release)));
+
+    // Other providers are not affected
+    assertThat(executors.supply("other", () -> "done").join()).isEqualTo("done");
+
+    release.countDown();
+    assertThat(running.join()).isEqualTo("released");
+    assertThat(queued.join()).isEqualTo("released");
+  }
+
+  @Test
+  @SneakyThrows
+  public void testCancelledCallsAreInterrupted() {
+    val executors = new ProviderExecutors();
+    ReflectionTestUtils.setField(executors, "poolSize", 1);
+    val release = new CountDownLatch(1);
+
+    val running = executors.supply("slow", () -> await(release));
+    running.cancel(true);
+
+    // The only thread of the pool is free again without the call being released
+    assertThat(executors.supply("slow", () -> "done").get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    assertThat(running.isCancelled()).isTrue();
+  }
+
+  @SneakyThrows
+  private static String await(CountDownLatch latch) {
+    latch.await(10, TimeUnit.SECONDS);
+    return "released";
+  }
+
+}
@@ -0,0 +1,151 @@
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.controller.resolver.PageableResolver;
+import org.overture.ego.model.entity.Policy;
+import org.overture.ego.model.enums.PolicyMask;
+import org.overture.ego.model.exceptions.InvalidPermissionGrantException;
+import org.overture.ego.model.params.PermissionGrant;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class AclIndexTest {
+
+  @Autowired
+  private AclIndex aclIndex;
+
+  @Autowired
+  private PolicyService policyService;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private GroupService groupService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  private UUID userId;
+  private UUID groupId;
+  private Policy study001;
+
+  @Before
+  public void setUp() {
+    entityGenerator.setupSimpleUsers();
+    entityGenerator.setupSimpleGroups();
+    val groups = groupService.listGroups(Collections.emptyList(), new PageableResolver().getPageable())
+        .getContent();
+    entityGenerator.setupSimpleAclEntities(groups);
+
+    userId = userService.getByName("FirstUser@domain.com").getId();
+    groupId = groupService.getByName("Group One").getId();
+    userService.addUserToGroups(userId.toString(), singletonList(groupId.toString()));
+    study001 = policyService.getByName("Study001");
+  }
+
+  @Test
+  public void testGroupPermissionsAreCombined() {
+    grant("READ", userId, null);
+    grant("WRITE", null, groupId);
+
+    val permissions = aclIndex.getUserPermissions(userId);
+    assertThat(permissions.get(study001.getId())).isEqualTo(PolicyMask.WRITE);
+    assertThat(permissions.get("Study001")).isEqualTo(PolicyMask.WRITE);
+    assertThat(permissions.get("study001")).isEqualTo(PolicyMask.WRITE);
+    assertThat(permissions.getPermissionStrings()).containsExactly("Study001.WRITE");
+  }
+
+  @Test
+  public void testDenyOverridesGroups() {
+    grant("WRITE", userId, null);
+    grant("DENY", null, groupId);
+
+    assertThat(aclIndex.getUserPermissions(userId).get(study001.getId())).isEqualTo(PolicyMask.DENY);
+    assertThat(aclIndex.getGroupPermissions(groupId).get("Study001")).isEqualTo(PolicyMask.DENY);
+  }
+
+  @Test
+  public void testInvalidGrantsAreRejected() {
+    assertThatThrownBy(() -> grant(null, userId, null)).isInstanceOf(InvalidPermissionGrantException.class);
+    assertThatThrownBy(() -> grant("ADMIN", userId, null)).isInstanceOf(InvalidPermissionGrantException.class);
+    assertThatThrownBy(() -> policyService.revoke(study001.getId().toString(),
+        new PermissionGrant(null, singletonList("not an id"), Collections.emptyList())))
+        .isInstanceOf(InvalidPermissionGrantException.class);
+  }
+
+  @Test
+  public void testIncrementalUpdates() {
+    // Loaded before any change, committed changes are then applied to the index in place
+    assertThat(aclIndex.getUserPermissions(userId).isEmpty()).isTrue();
+
+    aclIndex.granted(true, singletonList(groupId), study001.getId(), study001.getName(), PolicyMask.READ);
+    assertThat(aclIndex.getUserPermissions(userId).get(study001.getId())).isEqualTo(PolicyMask.READ);
+
+    aclIndex.granted(false, singletonList(userId), study001.getId(), study001.getName(), PolicyMask.WRITE);
+    assertThat(aclIndex.getUserPermissions(userId).get(study001.getId())).isEqualTo(PolicyMask.WRITE);
+
+    aclIndex.revoked(false, singletonList(userId), study001.getId(), null);
+    aclIndex.membersRemoved(groupId, singletonList(userId));
+    assertThat(aclIndex.getUserPermissions(userId).isEmpty()).isTrue();
+
+    aclIndex.membersAdded(groupId, singletonList(userId));
+    assertThat(aclIndex.getUserPermissions(userId).getPermissionStrings()).containsExactly("Study001.READ");
+  }
+
+  @Test
+  public void testUnknownSubjectsAreNotIndexed() {
+    val state = ReflectionTestUtils.getField(aclIndex, "state");
+    val users = (AclIndex.Dictionary) ReflectionTestUtils.getField(state, "users");
+    val groups = (AclIndex.Dictionary) ReflectionTestUtils.getField(state, "groups");
+    val userCount = users.size();
+    val groupCount = groups.size();
+
+    assertThat(aclIndex.getUserPermissions(UUID.randomUUID()).isEmpty()).isTrue();
+    assertThat(aclIndex.getGroupPermissions(UUID.randomUUID()).isEmpty()).isTrue();
+    aclIndex.granted(false, singletonList(UUID.randomUUID()), study001.getId(), study001.getName(), PolicyMask.READ);
+    aclIndex.evictGroups(singletonList(UUID.randomUUID()));
+
+    assertThat(users.size()).isEqualTo(userCount);
+    assertThat(groups.size()).isEqualTo(groupCount);
+  }
+
+  @Test
+  public void testRenamedPoliciesLoseTheirOldName() {
+    val policies = new AclIndex.Dictionary();
+    val id = policies.id(study001.getId(), "Study001");
+    policies.id(study001.getId(), "Study002");
+
+    assertThat(policies.find("Study001")).isNull();
+    assertThat(policies.find("Study002")).isEqualTo(id);
+    assertThat(policies.name(id)).isEqualTo("Study002");
+  }
+
+  private void grant(String mask, UUID user, UUID group) {
+    policyService.grant(study001.getId().toString(), new PermissionGrant(mask,
+        user == null ? Collections.emptyList() : singletonList(user.toString()),
+        group == null ? Collections.emptyList() : singletonList(group.toString())));
+  }
+
+}
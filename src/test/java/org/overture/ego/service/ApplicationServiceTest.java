@@ -2,6 +2,8 @@ package org.overture.ego.service;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,11 +16,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.provider.ClientRegistrationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,6 +51,12 @@ public class ApplicationServiceTest {
   @Autowired
   private EntityGenerator entityGenerator;
 
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private PasswordEncoder passwordEncoder;
+
   // Create
   @Test
   public void testCreate() {
@@ -440,6 +450,42 @@ public class ApplicationServiceTest {
     assertThat(client.getAuthorities()).containsExactly(new SimpleGrantedAuthority(AppTokenClaims.ROLE));
   }
 
+  @Test
+  public void testLoadClientByClientIdIsCached() {
+    val application = applicationService.create(entityGenerator.createOneApplication("123456"));
+    application.setStatus("Approved");
+    applicationService.update(application);
+
+    val client = applicationService.loadClientByClientId("123456");
+
+    assertThat(applicationService.loadClientByClientId("123456")).isSameAs(client);
+    assertThat(client.getClientSecret()).isEqualTo(application.getClientSecret());
+  }
+
+  @Test
+  public void testClientSecretIsHashedOnce() {
+    val application = applicationService.create(entityGenerator.createOneApplication("123456"));
+    val hash = application.getClientSecret();
+    assertThat(passwordEncoder.matches("654321", hash)).isTrue();
+
+    // Updates carry the stored hash back
+    applicationService.update(application);
+    assertThat(applicationService.get(application.getId().toString()).getClientSecret()).isEqualTo(hash);
+  }
+
+  @Test
+  public void testSubmittedHashesAreHashed() {
+    val application = applicationService.create(entityGenerator.createOneApplication("123456"));
+    val update = entityGenerator.createOneApplication("123456");
+    update.setId(application.getId());
+    update.setClientSecret(passwordEncoder.encode("chosen"));
+    applicationService.update(update);
+
+    val stored = applicationService.get(application.getId().toString()).getClientSecret();
+    assertThat(passwordEncoder.matches("chosen", stored)).isFalse();
+    assertThat(passwordEncoder.matches(update.getClientSecret(), stored)).isTrue();
+  }
+
   @Test
   public void testLoadClientByClientIdNotFound() {
     assertThatExceptionOfType(ClientRegistrationException.class).isThrownBy(
@@ -466,4 +512,24 @@ public class ApplicationServiceTest {
     assertThatExceptionOfType(ClientRegistrationException.class).isThrownBy(() -> applicationService.loadClientByClientId("123456")).withMessage("Client Access is not approved.");
   }
 
+  @Test
+  public void testGetUsesSecondLevelCache() {
+    val application = applicationService.create(entityGenerator.createOneApplication("123456"));
+    entityManager.flush();
+    entityManager.clear();
+
+    // The first load puts the application in the cache, the next one is served from it
+    applicationService.get(application.getId().toString());
+    entityManager.clear();
+    val hits = statistics().getSecondLevelCacheHitCount();
+    val cached = applicationService.get(application.getId().toString());
+
+    assertThat(cached.getClientId()).isEqualTo("123456");
+    assertThat(statistics().getSecondLevelCacheHitCount()).isGreaterThan(hits);
+  }
+
+  private Statistics statistics() {
+    return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+  }
+
 }
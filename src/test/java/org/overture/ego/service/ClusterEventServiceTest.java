@@ -0,0 +1,96 @@
+package org.overture.ego.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.model.dto.ChangeEvent;
+import org.overture.ego.model.enums.EntityType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.bus.Event;
+import reactor.bus.EventBus;
+import reactor.bus.registry.Registration;
+import reactor.bus.selector.Selectors;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+  Notifications are only delivered once committed, so these tests run outside of a transaction
+ */
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ClusterEventServiceTest {
+
+  @Autowired
+  private ClusterEventService clusterEventService;
+
+  @Autowired
+  private EventBus eventBus;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private final BlockingQueue<ChangeEvent> received = new LinkedBlockingQueue<>();
+  private Registration<?, ?> registration;
+
+  @Before
+  public void setUp() {
+    registration = eventBus.on(Selectors.$(ClusterEventService.CHANGED),
+        (Event<?> event) -> received.add((ChangeEvent) event.getData()));
+  }
+
+  @After
+  public void tearDown() {
+    registration.cancel();
+  }
+
+  @Test
+  public void testChangesFromOtherNodesArePosted() {
+    val id = UUID.randomUUID();
+    notifyFromOtherNode(new ChangeEvent(EntityType.GROUP, id, 7, "other-node"));
+
+    val event = next();
+    assertThat(event).isNotNull();
+    assertThat(event.getType()).isEqualTo(EntityType.GROUP);
+    assertThat(event.getId()).isEqualTo(id);
+    assertThat(event.getSequence()).isEqualTo(7);
+  }
+
+  @Test
+  public void testOwnChangesAreNotPosted() {
+    val own = UUID.randomUUID();
+    val other = UUID.randomUUID();
+    clusterEventService.publish(EntityType.USER, own);
+    notifyFromOtherNode(new ChangeEvent(EntityType.USER, other, 1, "other-node"));
+
+    // Notifications arrive in commit order, the node's own change would come first
+    assertThat(next().getId()).isEqualTo(other);
+  }
+
+  @SneakyThrows
+  private void notifyFromOtherNode(ChangeEvent event) {
+    val payload = new ObjectMapper().writeValueAsString(event);
+    jdbcTemplate.query("SELECT pg_notify('ego_changes', ?)", rs -> {}, payload);
+  }
+
+  @SneakyThrows
+  private ChangeEvent next() {
+    return received.poll(10, TimeUnit.SECONDS);
+  }
+
+}
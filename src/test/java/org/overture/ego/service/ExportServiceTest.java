@@ -0,0 +1,97 @@
+package org.overture.ego.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.model.exceptions.UnknownExportException;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class ExportServiceTest {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Autowired
+  private ExportService exportService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Before
+  public void setUp() {
+    entityGenerator.setupSimpleUsers();
+    entityGenerator.setupSimpleApplications();
+    // the export reads through jdbc, pending entities have to reach the database first
+    entityManager.flush();
+  }
+
+  @Test
+  public void testExportUsers() {
+    val rows = export(ExportService.Entity.USERS);
+
+    assertThat(rows).hasSize(3);
+    assertThat(rows.stream().map(r -> r.get("email").asText()).collect(Collectors.toList()))
+        .containsOnly("FirstUser@domain.com", "SecondUser@domain.com", "ThirdUser@domain.com");
+    val first = rows.get(0);
+    assertThat(first.get("id").asText()).hasSize(36);
+    assertThat(first.has("firstName")).isTrue();
+    assertThat(first.get("lastLogin").isNull()).isTrue();
+  }
+
+  @Test
+  public void testExportApplicationsWithoutSecrets() {
+    val rows = export(ExportService.Entity.APPLICATIONS);
+
+    assertThat(rows).hasSize(5);
+    assertThat(rows).allSatisfy(r -> {
+      assertThat(r.has("clientId")).isTrue();
+      assertThat(r.has("clientSecret")).isFalse();
+    });
+  }
+
+  @Test
+  public void testUnknownExport() {
+    assertThat(ExportService.Entity.parse("Groups")).isEqualTo(ExportService.Entity.GROUPS);
+    assertThatThrownBy(() -> ExportService.Entity.parse("tokens")).isInstanceOf(UnknownExportException.class);
+  }
+
+  @SneakyThrows
+  private List<JsonNode> export(ExportService.Entity entity) {
+    val out = new ByteArrayOutputStream();
+    val count = exportService.export(entity, out);
+    val rows = new ArrayList<JsonNode>();
+    for (val line : new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n")) {
+      rows.add(MAPPER.readTree(line));
+    }
+    assertThat(count).isEqualTo(rows.size());
+    return rows;
+  }
+
+}
@@ -0,0 +1,117 @@
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.model.entity.Application;
+import org.overture.ego.model.entity.Group;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.util.Pair;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+  Checks the number of SQL statements issued by list and token lookups,
+  so that associations are only loaded where a fetch plan asks for them.
+ */
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class FetchPlanTest {
+
+  private static final int USER_COUNT = 50;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private GroupService groupService;
+
+  @Autowired
+  private ApplicationService applicationService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private List<User> users;
+
+  @Before
+  public void setUp() {
+    val groups = entityGenerator.createGroupsfromList(asList("Group One", "Group Two", "Group Three")).stream()
+        .map(groupService::create)
+        .map(g -> g.getId().toString())
+        .collect(Collectors.toList());
+    val apps = entityGenerator.createApplicationsFromList(asList("111111", "222222", "333333")).stream()
+        .map(applicationService::create)
+        .map(a -> a.getId().toString())
+        .collect(Collectors.toList());
+
+    users = IntStream.range(0, USER_COUNT)
+        .mapToObj(i -> userService.create(entityGenerator.createOneUser(Pair.of("Fetch" + i, "User"))))
+        .collect(Collectors.toList());
+    users.forEach(u -> {
+      userService.addUserToGroups(u.getId().toString(), groups);
+      userService.addUserToApps(u.getId().toString(), apps);
+    });
+
+    entityManager.flush();
+    entityManager.clear();
+    statistics().clear();
+  }
+
+  @Test
+  public void testListUsers() {
+    val page = userService.listUsers(Collections.emptyList(), PageRequest.of(0, USER_COUNT * 2));
+    page.getContent().forEach(User::getName);
+
+    assertThat(page.getContent().size()).isGreaterThanOrEqualTo(USER_COUNT);
+    // One select for the page, possibly one count
+    assertThat(statistics().getPrepareStatementCount()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  public void testListGroupsAndApplications() {
+    groupService.listGroups(Collections.emptyList(), PageRequest.of(0, 10)).getContent().forEach(Group::getName);
+    applicationService.listApps(Collections.emptyList(), PageRequest.of(0, 10)).getContent()
+        .forEach(Application::getName);
+
+    assertThat(statistics().getPrepareStatementCount()).isLessThanOrEqualTo(4);
+  }
+
+  @Test
+  public void testUserForToken() {
+    val user = userService.getForToken(users.get(0).getId().toString());
+
+    assertThat(user.getGroups()).hasSize(3);
+    assertThat(user.getApplications()).hasSize(3);
+    assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  private Statistics statistics() {
+    return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+  }
+
+}
@@ -492,6 +492,56 @@ public class GroupsServiceTest {
     assertThat(nonUpdated).isEqualTo(group);
   }
 
+  // Add Users to Group
+  @Test
+  public void addUsersToGroup() {
+    entityGenerator.setupSimpleGroups();
+    entityGenerator.setupSimpleUsers();
+
+    val groupId = groupService.getByName("Group One").getId().toString();
+    val userIds = Arrays.asList("FirstUser@domain.com", "SecondUser@domain.com", "ThirdUser@domain.com").stream()
+        .map(name -> userService.getByName(name).getId().toString())
+        .collect(Collectors.toList());
+    userService.addUserToGroups(userIds.get(0), Arrays.asList(groupId));
+
+    // Existing members and repeated ids are skipped
+    val group = groupService.addUsersToGroup(groupId, Arrays.asList(userIds.get(0), userIds.get(1), userIds.get(2),
+        userIds.get(2)));
+
+    assertThat(group.getWholeUsers()).hasSize(3);
+    assertThat(userService.findGroupUsers(groupId, Collections.emptyList(), new PageableResolver().getPageable())
+        .getTotalElements()).isEqualTo(3L);
+  }
+
+  @Test
+  public void addUsersToGroupNoUser() {
+    entityGenerator.setupSimpleGroups();
+    entityGenerator.setupSimpleUsers();
+
+    val groupId = groupService.getByName("Group One").getId().toString();
+    val userId = userService.getByName("FirstUser@domain.com").getId().toString();
+
+    assertThatExceptionOfType(EntityNotFoundException.class)
+        .isThrownBy(() -> groupService.addUsersToGroup(groupId, Arrays.asList(userId, UUID.randomUUID().toString())));
+  }
+
+  @Test
+  public void deleteUsersFromGroup() {
+    entityGenerator.setupSimpleGroups();
+    entityGenerator.setupSimpleUsers();
+
+    val groupId = groupService.getByName("Group One").getId().toString();
+    val userId = userService.getByName("FirstUser@domain.com").getId().toString();
+    val userTwoId = userService.getByName("SecondUser@domain.com").getId().toString();
+    groupService.addUsersToGroup(groupId, Arrays.asList(userId, userTwoId));
+
+    groupService.deleteUsersFromGroup(groupId, Arrays.asList(userId));
+
+    val users = userService.findGroupUsers(groupId, Collections.emptyList(), new PageableResolver().getPageable());
+    assertThat(users.getContent()).extracting("id").containsOnly(UUID.fromString(userTwoId));
+    assertThat(groupService.get(groupId).getWholeUsers()).hasSize(1);
+  }
+
   // Delete
   @Test
   public void testDelete() {
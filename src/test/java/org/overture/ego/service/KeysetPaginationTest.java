@@ -0,0 +1,123 @@
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.model.exceptions.InvalidCursorException;
+import org.overture.ego.model.search.CountMode;
+import org.overture.ego.model.search.KeysetPageable;
+import org.overture.ego.model.search.PageCursor;
+import org.overture.ego.model.search.ResultPage;
+import org.overture.ego.model.search.SearchFilter;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.Pair;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class KeysetPaginationTest {
+
+  private static final int USER_COUNT = 25;
+  private static final int PAGE_SIZE = 10;
+  private static final List<SearchFilter> FILTERS =
+      Collections.singletonList(new SearchFilter("name", "Keyset"));
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  private List<User> users;
+
+  @Before
+  public void setUp() {
+    users = IntStream.range(0, USER_COUNT)
+        .mapToObj(i -> {
+          val user = entityGenerator.createOneUser(Pair.of("Keyset" + i, "User"));
+          // every third user has no language, to page over null sort values
+          user.setPreferredLanguage(i % 3 == 0 ? null : "Language" + (i % 4));
+          return userService.create(user);
+        })
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPagesCoverAllRowsOnce() {
+    val expected = users.stream().map(User::getId).collect(Collectors.toList());
+
+    assertThat(readAllPages(Sort.Direction.ASC, "name")).hasSize(USER_COUNT).containsOnlyElementsOf(expected);
+    assertThat(readAllPages(Sort.Direction.DESC, "name")).hasSize(USER_COUNT).containsOnlyElementsOf(expected);
+  }
+
+  @Test
+  public void testTiesAreBrokenById() {
+    // all users share the same last name
+    assertThat(readAllPages(Sort.Direction.DESC, "lastName")).hasSize(USER_COUNT).doesNotHaveDuplicates();
+    assertThat(readAllPages(Sort.Direction.ASC, "lastName")).hasSize(USER_COUNT).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void testNullSortValues() {
+    assertThat(readAllPages(Sort.Direction.ASC, "preferredLanguage")).hasSize(USER_COUNT).doesNotHaveDuplicates();
+    assertThat(readAllPages(Sort.Direction.DESC, "preferredLanguage")).hasSize(USER_COUNT).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void testCountOnlyWhenRequested() {
+    val order = new Sort.Order(Sort.Direction.ASC, "name");
+
+    val uncounted = (ResultPage<User>) userService.listUsers(FILTERS,
+        new KeysetPageable(PAGE_SIZE, order, null, CountMode.NONE, null));
+    val counted = (ResultPage<User>) userService.listUsers(FILTERS,
+        new KeysetPageable(PAGE_SIZE, order, null, CountMode.EXACT, null));
+
+    assertThat(uncounted.getCount()).isNull();
+    assertThat(counted.getCount()).isEqualTo(USER_COUNT);
+  }
+
+  @Test
+  public void testCursorRoundTrip() {
+    val cursor = PageCursor.of(users.get(0), new Sort.Order(Sort.Direction.DESC, "name"));
+    val decoded = PageCursor.decode(cursor.encode());
+
+    assertThat(decoded.getOrder()).isEqualTo(cursor.getOrder());
+    assertThat(decoded.getValue()).isEqualTo(users.get(0).getName());
+    assertThat(decoded.getId()).isEqualTo(users.get(0).getId());
+    assertThatThrownBy(() -> PageCursor.decode("not a cursor")).isInstanceOf(InvalidCursorException.class);
+  }
+
+  private List<UUID> readAllPages(Sort.Direction direction, String sort) {
+    val ids = new ArrayList<UUID>();
+    PageCursor after = null;
+    do {
+      val pageable = new KeysetPageable(PAGE_SIZE, new Sort.Order(direction, sort), after, CountMode.NONE, null);
+      val page = (ResultPage<User>) userService.listUsers(FILTERS, pageable);
+      page.getContent().forEach(u -> ids.add(u.getId()));
+      after = page.getNext() == null ? null : PageCursor.decode(page.getNext());
+    } while (after != null);
+    return ids;
+  }
+
+}
@@ -0,0 +1,60 @@
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.util.Pair;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class LastLoginServiceTest {
+
+  @Autowired
+  private LastLoginService lastLoginService;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  public void testLoginsAreCoalescedPerUser() {
+    val user = userService.create(entityGenerator.createOneUser(Pair.of("Login", "User")));
+    entityManager.flush();
+
+    val mergedBefore = lastLoginService.getMergedCount();
+    lastLoginService.recordLogin(user.getId(), "2018-01-01 01:00:00");
+    lastLoginService.recordLogin(user.getId(), "2018-01-02 01:00:00");
+
+    assertThat(lastLoginService.getMergedCount() - mergedBefore).isEqualTo(1);
+    assertThat(lastLoginService.flush()).isEqualTo(1);
+    assertThat(lastLoginService.getPendingCount()).isEqualTo(0);
+
+    val lastLogin = jdbcTemplate.queryForObject(
+        "SELECT lastlogin FROM egouser WHERE id=?", String.class, user.getId());
+    assertThat(lastLogin).isEqualTo("2018-01-02 01:00:00");
+  }
+
+}
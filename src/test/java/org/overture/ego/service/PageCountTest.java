@@ -0,0 +1,95 @@
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.controller.resolver.PageableResolver;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.model.search.CountMode;
+import org.overture.ego.model.search.ResultPage;
+import org.overture.ego.model.search.SearchFilter;
+import org.overture.ego.repository.CountEstimator;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.util.Pair;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class PageCountTest {
+
+  private static final int USER_COUNT = 25;
+  private static final List<SearchFilter> FILTERS =
+      Collections.singletonList(new SearchFilter("name", "Counted"));
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private CountEstimator countEstimator;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  @Before
+  public void setUp() {
+    countEstimator.invalidateAll();
+    IntStream.range(0, USER_COUNT)
+        .forEach(i -> userService.create(entityGenerator.createOneUser(Pair.of("Counted" + i, "User"))));
+  }
+
+  @Test
+  public void testExactCount() {
+    val page = userService.listUsers(FILTERS, new PageableResolver().getPageable(CountMode.EXACT, "users"));
+
+    assertThat(page).isInstanceOf(PageImpl.class).isNotInstanceOf(ResultPage.class);
+    assertThat(page.getTotalElements()).isEqualTo(USER_COUNT);
+  }
+
+  @Test
+  public void testNoCount() {
+    val page = (ResultPage<User>) userService.listUsers(FILTERS,
+        new PageableResolver().getPageable(CountMode.NONE, "users"));
+
+    assertThat(page.getCount()).isNull();
+    assertThat(page.getContent()).hasSize(20);
+    assertThat(page.hasNext()).isTrue();
+  }
+
+  @Test
+  public void testEstimatedCountIsCached() {
+    val pageable = new PageableResolver().getPageable(CountMode.ESTIMATE, "users?name=Counted");
+
+    val first = (ResultPage<User>) userService.listUsers(FILTERS, pageable);
+    userService.create(entityGenerator.createOneUser(Pair.of("Counted" + USER_COUNT, "User")));
+    val second = (ResultPage<User>) userService.listUsers(FILTERS, pageable);
+
+    assertThat(first.getCount()).isEqualTo(USER_COUNT);
+    assertThat(second.getCount()).isEqualTo(USER_COUNT);
+    assertThat(first.hasNext()).isTrue();
+  }
+
+  @Test
+  public void testUnfilteredEstimate() {
+    val page = (ResultPage<User>) userService.listUsers(Collections.emptyList(),
+        new PageableResolver().getPageable(CountMode.ESTIMATE, "users"));
+
+    assertThat(page.getCount()).isGreaterThan(0);
+  }
+
+}
@@ -0,0 +1,120 @@
+package org.overture.ego.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.controller.resolver.PageableResolver;
+import org.overture.ego.model.dto.PermissionCheckResult;
+import org.overture.ego.model.entity.Policy;
+import org.overture.ego.model.exceptions.InvalidPermissionCheckException;
+import org.overture.ego.model.params.PermissionCheck;
+import org.overture.ego.model.params.PermissionGrant;
+import org.overture.ego.model.params.PolicyReadQuery;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class PermissionCheckServiceTest {
+
+  @Autowired
+  private PermissionCheckService permissionCheckService;
+
+  @Autowired
+  private PolicyService policyService;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private GroupService groupService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  private String userId;
+  private String groupId;
+  private Policy study001;
+
+  @Before
+  public void setUp() {
+    entityGenerator.setupSimpleUsers();
+    entityGenerator.setupSimpleGroups();
+    val groups = groupService.listGroups(Collections.emptyList(), new PageableResolver().getPageable())
+        .getContent();
+    entityGenerator.setupSimpleAclEntities(groups);
+
+    userId = userService.getByName("FirstUser@domain.com").getId().toString();
+    groupId = groupService.getByName("Group One").getId().toString();
+    userService.addUserToGroups(userId, Collections.singletonList(groupId));
+
+    study001 = policyService.getByName("Study001");
+    val study002 = policyService.getByName("Study002");
+    // Study001: READ for the user, WRITE through the group. Study002: READ for the user, DENY through the group
+    grant(study001, "READ", userId, null);
+    grant(study001, "WRITE", null, groupId);
+    grant(study002, "READ", userId, null);
+    grant(study002, "DENY", null, groupId);
+  }
+
+  @Test
+  public void testCheck() {
+    val results = permissionCheckService.check(Arrays.asList(
+        new PermissionCheck(userId, null, "Study001", "READ"),
+        new PermissionCheck(userId, "user", study001.getId().toString(), "WRITE"),
+        new PermissionCheck(userId, null, "Study002", "READ"),
+        new PermissionCheck(userId, null, "Study003", "READ"),
+        new PermissionCheck(groupId, "group", "Study001", "WRITE"),
+        new PermissionCheck(groupId, "GROUP", "Study002", "DENY")
+    ));
+
+    assertThat(results.stream().map(PermissionCheckResult::isAllowed).collect(Collectors.toList()))
+        .containsExactly(true, true, false, false, true, false);
+    assertThat(results.stream().map(PermissionCheckResult::getEffectiveMask).collect(Collectors.toList()))
+        .containsExactly("WRITE", "WRITE", "DENY", null, "WRITE", "DENY");
+  }
+
+  @Test
+  public void testReadablePolicies() {
+    val readable = permissionCheckService.readablePolicies(
+        new PolicyReadQuery(userId, Arrays.asList("Study001", "Study002", "Study003", study001.getId().toString())));
+
+    assertThat(readable).containsExactly("Study001", study001.getId().toString());
+  }
+
+  @Test
+  public void testInvalidCheck() {
+    assertThatExceptionOfType(InvalidPermissionCheckException.class).isThrownBy(() -> permissionCheckService
+        .check(Collections.singletonList(new PermissionCheck(userId, null, "Study001", "EXECUTE"))));
+    assertThatExceptionOfType(InvalidPermissionCheckException.class).isThrownBy(() -> permissionCheckService
+        .check(Collections.singletonList(new PermissionCheck("not an id", null, "Study001", "READ"))));
+    assertThatExceptionOfType(InvalidPermissionCheckException.class).isThrownBy(() -> permissionCheckService
+        .check(Collections.singletonList(new PermissionCheck(userId, "application", "Study001", "READ"))));
+  }
+
+  private void grant(Policy policy, String mask, String user, String group) {
+    policyService.grant(policy.getId().toString(), new PermissionGrant(mask, listOf(user), listOf(group)));
+  }
+
+  private static List<String> listOf(String id) {
+    return id == null ? Collections.emptyList() : Collections.singletonList(id);
+  }
+
+}
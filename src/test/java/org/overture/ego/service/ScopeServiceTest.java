@@ -8,6 +8,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.overture.ego.controller.resolver.PageableResolver;
 import org.overture.ego.model.entity.Group;
+import org.overture.ego.model.params.PermissionGrant;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.utils.EntityGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +40,12 @@ public class ScopeServiceTest {
   @Autowired
   private GroupService groupService;
 
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private EffectivePermissionService effectivePermissionService;
+
   @Autowired
   private EntityGenerator entityGenerator;
 
@@ -164,4 +171,61 @@ public class ScopeServiceTest {
     assertThat(remainingAclEntities.getContent()).doesNotContain(policy);
   }
 
+  // Bulk grant
+  @Test
+  public void testGrant() {
+    entityGenerator.setupSimpleAclEntities(groups);
+    entityGenerator.setupSimpleUsers();
+    val policy = policyService.getByName("Study001");
+    val userId = userService.getByName("FirstUser@domain.com").getId();
+    val userTwoId = userService.getByName("SecondUser@domain.com").getId();
+    val groupId = groups.get(0).getId();
+    userService.addUserToGroups(userTwoId.toString(), Collections.singletonList(groupId.toString()));
+
+    val grant = new PermissionGrant("READ", Arrays.asList(userId.toString(), userId.toString()),
+        Collections.singletonList(groupId.toString()));
+    val result = policyService.grant(policy.getId().toString(), grant);
+    // Repeating a grant adds nothing
+    val repeated = policyService.grant(policy.getId().toString(), grant);
+
+    assertThat(result.getUsers()).isEqualTo(1);
+    assertThat(result.getGroups()).isEqualTo(1);
+    assertThat(repeated.getUsers()).isEqualTo(0);
+    assertThat(repeated.getGroups()).isEqualTo(0);
+    assertThat(effectivePermissionService.getPermissions(userId)).containsExactly("Study001.READ");
+    assertThat(effectivePermissionService.getPermissions(userTwoId)).containsExactly("Study001.READ");
+  }
+
+  @Test
+  public void testGrantUnknownSubject() {
+    entityGenerator.setupSimpleAclEntities(groups);
+    val policy = policyService.getByName("Study001");
+
+    val grant = new PermissionGrant("WRITE", Collections.singletonList(UUID.randomUUID().toString()),
+        Collections.emptyList());
+    assertThatExceptionOfType(EntityNotFoundException.class)
+        .isThrownBy(() -> policyService.grant(policy.getId().toString(), grant));
+  }
+
+  @Test
+  public void testRevoke() {
+    entityGenerator.setupSimpleAclEntities(groups);
+    entityGenerator.setupSimpleUsers();
+    val policy = policyService.getByName("Study001");
+    val userId = userService.getByName("FirstUser@domain.com").getId().toString();
+    policyService.grant(policy.getId().toString(),
+        new PermissionGrant("READ", Collections.singletonList(userId), Collections.emptyList()));
+    policyService.grant(policy.getId().toString(),
+        new PermissionGrant("WRITE", Collections.singletonList(userId), Collections.emptyList()));
+
+    val writeOnly = policyService.revoke(policy.getId().toString(),
+        new PermissionGrant("WRITE", Collections.singletonList(userId), Collections.emptyList()));
+    val remaining = policyService.revoke(policy.getId().toString(),
+        new PermissionGrant(null, Collections.singletonList(userId), Collections.emptyList()));
+
+    assertThat(writeOnly.getUsers()).isEqualTo(1);
+    assertThat(remaining.getUsers()).isEqualTo(1);
+    assertThat(effectivePermissionService.getPermissions(UUID.fromString(userId))).isEmpty();
+  }
+
 }
@@ -0,0 +1,166 @@
+package org.overture.ego.service;
+
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.controller.resolver.PageableResolver;
+import org.overture.ego.model.dto.UserImportResult;
+import org.overture.ego.model.entity.Group;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class UserImportServiceTest {
+
+  @Autowired
+  private UserImportService userImportService;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private GroupService groupService;
+
+  @Autowired
+  private ApplicationService applicationService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Group group;
+
+  @Before
+  public void setUp() {
+    group = groupService.create(new Group("Cohort One"));
+    applicationService.create(entityGenerator.createOneApplication("111111"));
+  }
+
+  @Test
+  public void testNdjsonImport() {
+    val results = importUsers(UserImportService.Format.NDJSON,
+        "{\"email\":\"first@domain.com\",\"firstName\":\"First\",\"groups\":[\"cohort one\"],"
+            + "\"applications\":[\"111111\"]}\n"
+            + "\n"
+            + "{\"email\":\"not an email\"}\n"
+            + "{\"email\":\"second@domain.com\",\"groups\":[\"Cohort Two\"]}\n"
+            + "{\"email\":\"third@domain.com\",\"status\":\"pending\",\"preferredLanguage\":\"french\"}\n"
+            + "{not json\n");
+
+    assertThat(results.stream().map(UserImportResult::getLine).collect(Collectors.toList()))
+        .containsExactly(1L, 3L, 4L, 5L, 6L);
+    assertThat(results.stream().map(UserImportResult::getResult).collect(Collectors.toList()))
+        .containsExactly("created", "failed", "failed", "created", "failed");
+    assertThat(results.get(2).getError()).isEqualTo("Unknown group: Cohort Two");
+
+    val first = userService.getByName("first@domain.com");
+    assertThat(first.getId()).isEqualTo(results.get(0).getId());
+    assertThat(first.getRole()).isEqualTo("USER");
+    assertThat(userService.findGroupUsers(group.getId().toString(), Collections.emptyList(),
+        new PageableResolver().getPageable()).getTotalElements()).isEqualTo(1L);
+
+    val third = userService.getByName("third@domain.com");
+    assertThat(third.getStatus()).isEqualTo("Pending");
+    assertThat(third.getPreferredLanguage()).isEqualTo("French");
+    assertThat(userService.getByName("second@domain.com")).isNull();
+  }
+
+  @Test
+  public void testImportUpdatesExistingUsers() {
+    importUsers(UserImportService.Format.NDJSON, "{\"email\":\"first@domain.com\",\"lastName\":\"Before\"}\n");
+    val results = importUsers(UserImportService.Format.NDJSON,
+        "{\"email\":\"first@domain.com\",\"lastName\":\"After\",\"groups\":[\"Cohort One\"]}\n"
+            + "{\"email\":\"first@domain.com\",\"lastName\":\"Again\"}\n");
+
+    assertThat(results.stream().map(UserImportResult::getResult).collect(Collectors.toList()))
+        .containsExactly("updated", "updated");
+    assertThat(userService.getByName("first@domain.com").getLastName()).isEqualTo("Again");
+    assertThat(userService.findGroupUsers(group.getId().toString(), Collections.emptyList(),
+        new PageableResolver().getPageable()).getTotalElements()).isEqualTo(1L);
+  }
+
+  @Test
+  public void testImportKeepsValuesNotGiven() {
+    importUsers(UserImportService.Format.NDJSON,
+        "{\"email\":\"admin@domain.com\",\"role\":\"admin\",\"status\":\"disabled\",\"firstName\":\"Admin\"}\n");
+    val results = importUsers(UserImportService.Format.NDJSON,
+        "{\"email\":\"Admin@Domain.com\",\"lastName\":\"After\"}\n");
+
+    assertThat(results.get(0).getResult()).isEqualTo("updated");
+    val admin = userService.getByName("admin@domain.com");
+    assertThat(admin.getId()).isEqualTo(results.get(0).getId());
+    assertThat(admin.getRole()).isEqualTo("ADMIN");
+    assertThat(admin.getStatus()).isEqualTo("Disabled");
+    assertThat(admin.getFirstName()).isEqualTo("Admin");
+    assertThat(admin.getLastName()).isEqualTo("After");
+  }
+
+  @Test
+  public void testConflictingRowsFailOnTheirOwn() {
+    insertUser("taken@domain.com", "owner@domain.com");
+    insertUser("twice@domain.com", "Twice@domain.com");
+    insertUser("Twice", "twice@domain.com");
+    val results = importUsers(UserImportService.Format.NDJSON,
+        "{\"email\":\"first@domain.com\"}\n"
+            + "{\"email\":\"taken@domain.com\"}\n"
+            + "{\"email\":\"TWICE@domain.com\"}\n"
+            + "{\"email\":\"second@domain.com\",\"groups\":[\"Cohort One\"]}\n");
+
+    assertThat(results.stream().map(UserImportResult::getResult).collect(Collectors.toList()))
+        .containsExactly("created", "failed", "failed", "created");
+    assertThat(results.get(1).getError()).isEqualTo("Another user is already named after this email");
+    assertThat(results.get(2).getError()).isEqualTo("Several users have this email in different case");
+    assertThat(userService.getByName("first@domain.com")).isNotNull();
+    assertThat(userService.getByName("second@domain.com")).isNotNull();
+  }
+
+  @Test
+  public void testCsvImport() {
+    val results = importUsers(UserImportService.Format.CSV,
+        "Email,FirstName,LastName,Groups,Applications\n"
+            + "first@domain.com,First,\"Last, Name\",Cohort One,111111\n"
+            + "second@domain.com,\"Quoted \"\"Name\"\"\",,,\n");
+
+    assertThat(results.stream().map(UserImportResult::getResult).collect(Collectors.toList()))
+        .containsExactly("created", "created");
+    assertThat(userService.getByName("first@domain.com").getLastName()).isEqualTo("Last, Name");
+    assertThat(userService.getByName("second@domain.com").getFirstName()).isEqualTo("Quoted \"Name\"");
+  }
+
+  private void insertUser(String name, String email) {
+    jdbcTemplate.update("INSERT INTO egouser (id, name, email, role, status) VALUES (?, ?, ?, 'USER', 'Approved')",
+        UUID.randomUUID(), name, email);
+  }
+
+  @SneakyThrows
+  private List<UserImportResult> importUsers(UserImportService.Format format, String input) {
+    val results = new ArrayList<UserImportResult>();
+    userImportService.importUsers(new BufferedReader(new StringReader(input)), format, results::addAll);
+    return results;
+  }
+
+}
@@ -7,6 +7,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.overture.ego.controller.resolver.PageableResolver;
 import org.overture.ego.model.entity.User;
+import org.overture.ego.model.exceptions.InvalidFilterException;
 import org.overture.ego.model.params.Scope;
 import org.overture.ego.model.search.SearchFilter;
 import org.overture.ego.token.IDToken;
@@ -16,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.util.Pair;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -198,6 +200,42 @@ public class UserServiceTest {
     assertThat(users.getTotalElements()).isEqualTo(1L);
   }
 
+  @Test
+  public void testListUsersFilterOperators() {
+    entityGenerator.setupSimpleUsers();
+    val pageable = new PageableResolver().getPageable();
+
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("email", "eq:firstuser@domain.com")),
+        pageable).getTotalElements()).isEqualTo(1L);
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("email", "eq:User@domain.com")),
+        pageable).getTotalElements()).isEqualTo(0L);
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("email", "prefix:Second")),
+        pageable).getTotalElements()).isEqualTo(1L);
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("email", "prefix:User")),
+        pageable).getTotalElements()).isEqualTo(0L);
+    assertThat(userService.listUsers(
+        singletonList(SearchFilter.parse("email", "in:FirstUser@domain.com,ThirdUser@domain.com")),
+        pageable).getTotalElements()).isEqualTo(2L);
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("lastname", "eq:user")),
+        pageable).getTotalElements()).isEqualTo(3L);
+  }
+
+  @Test
+  public void testListUsersFilterByIdAndDate() {
+    entityGenerator.setupSimpleUsers();
+    val pageable = new PageableResolver().getPageable();
+    val user = userService.getByName("FirstUser@domain.com");
+
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("id", "eq:" + user.getId())),
+        pageable).getContent()).containsExactly(user);
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("createdat", "gt:2000-01-01")),
+        pageable).getTotalElements()).isEqualTo(3L);
+    assertThat(userService.listUsers(singletonList(SearchFilter.parse("createdat", "lt:2000-01-01")),
+        pageable).getTotalElements()).isEqualTo(0L);
+    assertThatExceptionOfType(InvalidFilterException.class).isThrownBy(() ->
+        userService.listUsers(singletonList(SearchFilter.parse("id", "eq:not-a-uuid")), pageable));
+  }
+
   @Test
   public void testListUsersFilteredEmptyResult() {
     entityGenerator.setupSimpleUsers();
@@ -217,6 +255,19 @@ public class UserServiceTest {
     assertThat(users.getContent().get(0).getName()).isEqualTo("FirstUser@domain.com");
   }
 
+  @Test
+  public void testFindUsersRankedByRelevance() {
+    userService.create(entityGenerator.createOneUser(Pair.of("Smithers", "Brown")));
+    userService.create(entityGenerator.createOneUser(Pair.of("Smith", "Jones")));
+    userService.create(entityGenerator.createOneUser(Pair.of("John", "Smith")));
+
+    val users = userService.findUsers("smith", Collections.emptyList(), PageRequest.of(0, 20));
+
+    assertThat(users.getTotalElements()).isEqualTo(3L);
+    // an exact last name match ranks above names merely containing the text
+    assertThat(users.getContent().get(0).getName()).isEqualTo("JohnSmith");
+  }
+
   @Test
   public void testFindUsersFiltered() {
     entityGenerator.setupSimpleUsers();
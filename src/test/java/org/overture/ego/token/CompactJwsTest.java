@@ -0,0 +1,122 @@
+package org.overture.ego.token;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.overture.ego.token.signer.DefaultTokenSigner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+public class CompactJwsTest {
+
+  private static DefaultTokenSigner tokenSigner;
+
+  @BeforeClass
+  @SneakyThrows
+  public static void setUp() {
+    val keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(2048);
+    val keyPair = keyPairGenerator.generateKeyPair();
+
+    tokenSigner = new DefaultTokenSigner();
+    ReflectionTestUtils.setField(tokenSigner, "encodedPrivKey",
+        Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+    ReflectionTestUtils.setField(tokenSigner, "encodedPubKey",
+        Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+    ReflectionTestUtils.invokeMethod(tokenSigner, "init");
+  }
+
+  @Test
+  public void testSameTokenAsJjwt() {
+    val payload = payloadExpiringIn(3600);
+    val expected = Jwts.builder()
+        .setHeaderParam("alg", "RS256")
+        .setHeaderParam("kid", tokenSigner.getKeyId().get())
+        .setPayload(payload)
+        .signWith(SignatureAlgorithm.RS256, tokenSigner.getKey().get())
+        .compact();
+
+    assertThat(CompactJws.sign(tokenSigner, payload)).isEqualTo(expected);
+  }
+
+  @Test
+  public void testParse() {
+    val token = CompactJws.sign(tokenSigner, payloadExpiringIn(3600));
+    val claims = CompactJws.parse(tokenSigner, token);
+
+    assertThat(claims.getSubject()).isEqualTo("1234");
+    assertThat(claims).isEqualTo(Jwts.parser()
+        .setSigningKey(tokenSigner.getPublicKey().get())
+        .parseClaimsJws(token)
+        .getBody());
+  }
+
+  @Test
+  public void testTokenWithoutKid() {
+    val token = Jwts.builder()
+        .setPayload(payloadExpiringIn(3600))
+        .signWith(SignatureAlgorithm.RS256, tokenSigner.getKey().get())
+        .compact();
+
+    assertThat(CompactJws.parse(tokenSigner, token).getSubject()).isEqualTo("1234");
+  }
+
+  @Test
+  public void testTamperedToken() {
+    val token = CompactJws.sign(tokenSigner, payloadExpiringIn(3600));
+    val other = CompactJws.sign(tokenSigner, "{\"sub\":\"5678\"}");
+    val forged = token.substring(0, token.lastIndexOf('.')) + other.substring(other.lastIndexOf('.'));
+
+    assertThatThrownBy(() -> CompactJws.parse(tokenSigner, forged)).isInstanceOf(SignatureException.class);
+  }
+
+  @Test
+  public void testExpiredToken() {
+    val token = CompactJws.sign(tokenSigner, payloadExpiringIn(-60));
+
+    assertThatThrownBy(() -> CompactJws.parse(tokenSigner, token)).isInstanceOf(ExpiredJwtException.class);
+  }
+
+  @Test
+  public void testOnlyRS256() {
+    val unsigned = Jwts.builder().setPayload(payloadExpiringIn(3600)).compact();
+    val hmac = Jwts.builder()
+        .setPayload(payloadExpiringIn(3600))
+        .signWith(SignatureAlgorithm.HS256, tokenSigner.getPublicKey().get().getEncoded())
+        .compact();
+
+    assertThatThrownBy(() -> CompactJws.parse(tokenSigner, unsigned)).isInstanceOf(UnsupportedJwtException.class);
+    assertThatThrownBy(() -> CompactJws.parse(tokenSigner, hmac)).isInstanceOf(UnsupportedJwtException.class);
+    assertThatThrownBy(() -> CompactJws.parse(tokenSigner, "not a token")).isInstanceOf(MalformedJwtException.class);
+  }
+
+  @Test
+  public void testEncodedPublicKey() {
+    val pem = tokenSigner.getEncodedPublicKey().get();
+    val body = pem.replace("-----BEGIN PUBLIC KEY-----", "")
+        .replace("-----END PUBLIC KEY-----", "")
+        .replaceAll("\\s", "");
+
+    assertThat(pem).startsWith("-----BEGIN PUBLIC KEY-----\r\n").endsWith("\n-----END PUBLIC KEY-----");
+    assertThat(Base64.getDecoder().decode(body)).isEqualTo(tokenSigner.getPublicKey().get().getEncoded());
+  }
+
+  private static String payloadExpiringIn(long seconds) {
+    return "{\"sub\":\"1234\",\"exp\":" + (System.currentTimeMillis() / 1000L + seconds) + "}";
+  }
+
+}
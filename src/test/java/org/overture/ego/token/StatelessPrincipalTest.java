@@ -0,0 +1,108 @@
+package org.overture.ego.token;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.security.SecureAuthorizationManager;
+import org.overture.ego.service.UserService;
+import org.overture.ego.utils.EntityGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.util.Pair;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional
+public class StatelessPrincipalTest {
+
+  @Autowired
+  private TokenService tokenService;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private EntityGenerator entityGenerator;
+
+  private SecureAuthorizationManager authorizationManager;
+  private Object statelessPrincipal;
+  private Object maxStaleness;
+  private User user;
+  private String token;
+
+  // The token service is shared by the whole test context, its settings are restored after each test
+  @Before
+  public void setUp() {
+    statelessPrincipal = ReflectionTestUtils.getField(tokenService, "statelessPrincipal");
+    maxStaleness = ReflectionTestUtils.getField(tokenService, "maxStaleness");
+    ReflectionTestUtils.setField(tokenService, "statelessPrincipal", true);
+    ReflectionTestUtils.setField(tokenService, "maxStaleness", 300000L);
+
+    authorizationManager = new SecureAuthorizationManager();
+    ReflectionTestUtils.setField(authorizationManager, "tokenService", tokenService);
+
+    val created = userService.create(entityGenerator.createOneUser(Pair.of("Stateless", "Admin")));
+    token = tokenService.generateUserToken(userService.getForToken(created.getId().toString()));
+    user = userService.getForToken(created.getId().toString());
+    user.setFirstName("Changed");
+    user.setRole("USER");
+  }
+
+  @After
+  public void tearDown() {
+    ReflectionTestUtils.setField(tokenService, "statelessPrincipal", statelessPrincipal);
+    ReflectionTestUtils.setField(tokenService, "maxStaleness", maxStaleness);
+  }
+
+  @Test
+  public void testFreshTokensAreServedFromClaims() {
+    val principal = tokenService.getTokenUserInfo(token);
+
+    assertThat(principal.getId()).isEqualTo(user.getId());
+    assertThat(principal.getFirstName()).isEqualTo("Stateless");
+    assertThat(principal.getRole()).isEqualTo("ADMIN");
+  }
+
+  @Test
+  public void testStaleTokensAreLoadedFromTheDatabase() {
+    ReflectionTestUtils.setField(tokenService, "maxStaleness", -1L);
+
+    assertThat(tokenService.getTokenUserInfo(token).getFirstName()).isEqualTo("Changed");
+  }
+
+  @Test
+  public void testAdminChecksRereadTheUser() {
+    val principal = tokenService.getTokenUserInfo(token);
+    assertThat(authorizationManager.authorizeWithAdminRole(
+        new UsernamePasswordAuthenticationToken(principal, null))).isFalse();
+
+    user.setRole("ADMIN");
+    assertThat(authorizationManager.authorizeWithAdminRole(
+        new UsernamePasswordAuthenticationToken(principal, null))).isTrue();
+  }
+
+  @Test
+  public void testDeletedUsersAreDenied() {
+    val principal = tokenService.getTokenUserInfo(token);
+    userService.delete(user.getId().toString());
+
+    assertThat(authorizationManager.authorizeWithAdminRole(
+        new UsernamePasswordAuthenticationToken(principal, null))).isFalse();
+    ReflectionTestUtils.setField(tokenService, "maxStaleness", -1L);
+    assertThat(tokenService.getTokenUserInfo(token)).isNull();
+  }
+
+}
@@ -0,0 +1,45 @@
+package org.overture.ego.token;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.overture.ego.model.entity.Application;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class TokenBatchVerificationTest {
+
+  @Autowired
+  private TokenService tokenService;
+
+  @Test
+  public void testVerifyTokens() {
+    val app = new Application("Batch Application", "batch", "secret");
+    app.setId(UUID.randomUUID());
+    val token = tokenService.generateAppToken(app);
+
+    val results = tokenService.verifyTokens(Arrays.asList(token, "not.a.token", "", token + "x"));
+
+    assertThat(results).hasSize(4);
+    assertThat(results.get(0).isValid()).isTrue();
+    assertThat(results.get(0).getSubject()).isEqualTo(app.getId().toString());
+    assertThat(results.get(0).getExpiry()).isInTheFuture();
+    assertThat(results.get(1).isValid()).isFalse();
+    assertThat(results.get(2).isValid()).isFalse();
+    assertThat(results.get(3).isValid()).isFalse();
+    assertThat(results.get(3).getSubject()).isNull();
+  }
+
+}
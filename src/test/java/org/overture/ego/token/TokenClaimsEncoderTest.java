@@ -0,0 +1,135 @@
+package org.overture.ego.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Test;
+import org.overture.ego.model.entity.Application;
+import org.overture.ego.model.entity.Group;
+import org.overture.ego.model.entity.User;
+import org.overture.ego.token.app.AppTokenClaims;
+import org.overture.ego.token.app.AppTokenContext;
+import org.overture.ego.token.user.UserTokenClaims;
+import org.overture.ego.token.user.UserTokenContext;
+import org.overture.ego.utils.TypeUtils;
+import org.overture.ego.view.Views;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+public class TokenClaimsEncoderTest {
+
+  private static final long INIT_TIME = 1459458458000L;
+  private static final int DURATION = 86400000;
+  private static final String JTI = "56fd919a-ccf2-4c1c-87ec-5c5d1600beef";
+
+  @Test
+  public void testUserClaimsMatchGoldenFile() {
+    val claims = userClaims();
+    val expected = readGoldenFile("/token/user-claims.json");
+
+    assertThat(TokenClaimsEncoder.encode(claims)).isEqualTo(expected);
+    assertThat(legacyEncode(claims)).isEqualTo(expected);
+  }
+
+  @Test
+  public void testAppClaimsMatchGoldenFile() {
+    val claims = appClaims();
+    val expected = readGoldenFile("/token/app-claims.json");
+
+    assertThat(TokenClaimsEncoder.encode(claims)).isEqualTo(expected);
+    assertThat(legacyEncode(claims)).isEqualTo(expected);
+  }
+
+  @Test
+  public void testUserWithoutGroupsOrPermissions() {
+    val user = user();
+    user.setWholeGroups(null);
+    user.setWholeApplications(null);
+    user.setEffectivePermissions(null);
+    user.setLastLogin(null);
+    val claims = userClaims(user);
+
+    assertThat(TokenClaimsEncoder.encode(claims)).isEqualTo(legacyEncode(claims));
+  }
+
+  private static UserTokenClaims userClaims() {
+    return userClaims(user());
+  }
+
+  private static UserTokenClaims userClaims(User user) {
+    val claims = new UserTokenClaims();
+    claims.setIss("ego");
+    claims.setValidDuration(DURATION);
+    claims.setContext(new UserTokenContext(user));
+    return fixTime(claims);
+  }
+
+  private static AppTokenClaims appClaims() {
+    val app = application();
+    app.setId(UUID.fromString("7a9d0c1e-2b3f-4a5c-8d6e-9f0a1b2c3d4e"));
+    app.setRedirectUri("http://example.com");
+    app.setStatus("Approved");
+    app.setWholeGroups(Collections.singleton(new Group("GroupOne")));
+
+    val claims = new AppTokenClaims();
+    claims.setIss("ego");
+    claims.setValidDuration(DURATION);
+    claims.setContext(new AppTokenContext(app));
+    return fixTime(claims);
+  }
+
+  private static User user() {
+    return User.builder()
+        .id(UUID.fromString("0f0a7a2e-5d8c-4c6a-9d7b-2a1f0c3e4b5a"))
+        .name("Demo.User@example.com")
+        .email("Demo.User@example.com")
+        .role("ADMIN")
+        .status("Approved")
+        .firstName("Zoë")
+        .lastName("O'Brien")
+        .createdAt("2017-11-23 10:24:41")
+        .lastLogin("2017-11-23 11:23:58")
+        .wholeGroups(Collections.singleton(new Group("GroupOne")))
+        .wholeApplications(Collections.singleton(application()))
+        .effectivePermissions(Arrays.asList("Study001.WRITE", "Study002.DENY"))
+        .build();
+  }
+
+  private static Application application() {
+    return new Application("Application 111111", "111111", "secret");
+  }
+
+  private static <T extends TokenClaims> T fixTime(T claims) {
+    claims.setJti(JTI);
+    ReflectionTestUtils.setField(claims, "initTime", INIT_TIME);
+    return claims;
+  }
+
+  /*
+    How the payload was produced before TokenClaimsEncoder: claims converted to a map
+    through the JWTAccessToken view, then written by jjwt's own ObjectMapper
+   */
+  @SneakyThrows
+  private static String legacyEncode(TokenClaims claims) {
+    return new ObjectMapper().writeValueAsString(
+        TypeUtils.convertToAnotherType(claims, Map.class, Views.JWTAccessToken.class));
+  }
+
+  @SneakyThrows
+  private static String readGoldenFile(String name) {
+    val path = Paths.get(TokenClaimsEncoderTest.class.getResource(name).toURI());
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim();
+  }
+
+}
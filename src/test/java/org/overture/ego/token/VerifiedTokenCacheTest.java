@@ -0,0 +1,95 @@
+package org.overture.ego.token;
+
+import io.jsonwebtoken.impl.DefaultClaims;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class VerifiedTokenCacheTest {
+
+  @Autowired
+  private VerifiedTokenCache verifiedTokenCache;
+
+  private boolean enabled;
+  private int maxSize;
+
+  // The cache is shared by the whole test context, its settings are restored after each test
+  @Before
+  public void setUp() {
+    enabled = verifiedTokenCache.isEnabled();
+    maxSize = verifiedTokenCache.getMaxSize();
+    verifiedTokenCache.invalidateAll();
+    verifiedTokenCache.setEnabled(true);
+    verifiedTokenCache.setMaxSize(2);
+  }
+
+  @After
+  public void tearDown() {
+    verifiedTokenCache.invalidateAll();
+    verifiedTokenCache.setEnabled(enabled);
+    verifiedTokenCache.setMaxSize(maxSize);
+  }
+
+  @Test
+  public void testCachedUntilExpiry() {
+    val claims = claimsExpiringIn(60000);
+    verifiedTokenCache.put("token", claims);
+
+    assertThat(verifiedTokenCache.get("token")).contains(claims);
+    assertThat(verifiedTokenCache.get("token").get()).isNotSameAs(claims);
+    assertThat(verifiedTokenCache.get("other")).isEmpty();
+  }
+
+  @Test
+  public void testCachedClaimsAreNotShared() {
+    val claims = claimsExpiringIn(60000);
+    claims.setSubject("subject");
+    verifiedTokenCache.put("token", claims);
+    claims.setSubject("changed by the caller");
+    verifiedTokenCache.get("token").get().setSubject("changed by another caller");
+
+    assertThat(verifiedTokenCache.get("token").get().getSubject()).isEqualTo("subject");
+  }
+
+  @Test
+  public void testExpiredTokensAreNotCached() {
+    verifiedTokenCache.put("expired", claimsExpiringIn(-1000));
+    verifiedTokenCache.put("noExpiry", new DefaultClaims());
+
+    assertThat(verifiedTokenCache.get("expired")).isEmpty();
+    assertThat(verifiedTokenCache.get("noExpiry")).isEmpty();
+    assertThat(verifiedTokenCache.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testBoundedSize() {
+    verifiedTokenCache.put("one", claimsExpiringIn(60000));
+    verifiedTokenCache.put("two", claimsExpiringIn(60000));
+    verifiedTokenCache.put("three", claimsExpiringIn(60000));
+
+    assertThat(verifiedTokenCache.size()).isEqualTo(2);
+    assertThat(verifiedTokenCache.get("three")).isEmpty();
+  }
+
+  private static DefaultClaims claimsExpiringIn(long millis) {
+    val claims = new DefaultClaims();
+    claims.setExpiration(new Date(System.currentTimeMillis() + millis));
+    return claims;
+  }
+
+}
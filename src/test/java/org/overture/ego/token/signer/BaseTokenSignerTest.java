@@ -0,0 +1,108 @@
+package org.overture.ego.token.signer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Test;
+import org.overture.ego.token.CompactJws;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+public class BaseTokenSignerTest {
+
+  private static final String PAYLOAD = "{\"sub\":\"1234\"}";
+
+  private TestTokenSigner tokenSigner;
+  private KeyPair first;
+  private KeyPair second;
+
+  @Before
+  public void setUp() {
+    first = generateKeyPair();
+    second = generateKeyPair();
+    tokenSigner = new TestTokenSigner();
+    tokenSigner.setKeys(first, Collections.emptyList());
+  }
+
+  @Test
+  public void testRotation() {
+    val oldKid = tokenSigner.getKeyId().get();
+    val oldToken = CompactJws.sign(tokenSigner, PAYLOAD);
+    val oldTag = tokenSigner.getJwksTag();
+
+    tokenSigner.setKeys(second, Collections.emptyList());
+    val newKid = tokenSigner.getKeyId().get();
+    val newToken = CompactJws.sign(tokenSigner, PAYLOAD);
+
+    assertThat(newKid).isNotEqualTo(oldKid);
+    assertThat(tokenSigner.getKeyPair()).contains(second);
+    assertThat(CompactJws.parse(tokenSigner, oldToken).getSubject()).isEqualTo("1234");
+    assertThat(CompactJws.parse(tokenSigner, newToken).getSubject()).isEqualTo("1234");
+    assertThat(tokenSigner.getJwksTag()).isNotEqualTo(oldTag);
+    assertThat(jwksKids()).containsExactly(newKid, oldKid);
+  }
+
+  @Test
+  public void testRetiredKeysExpire() {
+    val oldToken = CompactJws.sign(tokenSigner, PAYLOAD);
+    ReflectionTestUtils.setField(tokenSigner, "retention", 0L);
+
+    tokenSigner.setKeys(second, Collections.emptyList());
+    tokenSigner.removeExpiredKeys();
+
+    assertThatThrownBy(() -> CompactJws.parse(tokenSigner, oldToken)).isInstanceOf(Exception.class);
+    assertThat(jwksKids()).containsExactly(tokenSigner.getKeyId().get());
+  }
+
+  @Test
+  public void testVerificationOnlyKeys() {
+    val oldToken = CompactJws.sign(tokenSigner, PAYLOAD);
+    ReflectionTestUtils.setField(tokenSigner, "retention", 0L);
+
+    tokenSigner.setKeys(second, Collections.singletonList(first.getPublic()));
+
+    assertThat(CompactJws.parse(tokenSigner, oldToken).getSubject()).isEqualTo("1234");
+    assertThat(jwksKids()).hasSize(2);
+  }
+
+  @Test
+  public void testSameKeySameKid() {
+    val kid = tokenSigner.getKeyId().get();
+    val tag = tokenSigner.getJwksTag();
+
+    tokenSigner.setKeys(first, Collections.emptyList());
+
+    assertThat(tokenSigner.getKeyId()).contains(kid);
+    assertThat(tokenSigner.getJwksTag()).isEqualTo(tag);
+  }
+
+  @SneakyThrows
+  private String[] jwksKids() {
+    val jwks = new ObjectMapper().readTree(tokenSigner.getJwks());
+    val kids = new String[jwks.get("keys").size()];
+    for (int i = 0; i < kids.length; i++) {
+      kids[i] = jwks.get("keys").get(i).get("kid").asText();
+    }
+    return kids;
+  }
+
+  @SneakyThrows
+  private static KeyPair generateKeyPair() {
+    val keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+    keyPairGenerator.initialize(2048);
+    return keyPairGenerator.generateKeyPair();
+  }
+
+  private static class TestTokenSigner extends BaseTokenSigner {
+  }
+
+}